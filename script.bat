@@ -14,6 +14,18 @@ xcopy /E /I /Y src\auth\*.java "Compile"
 xcopy /E /I /Y src\exception\*.java "Compile"
 xcopy /E /I /Y src\controller\*.java "Compile"
 xcopy /E /I /Y src\servlet\*.java "Compile"
+xcopy /E /I /Y src\batch\*.java "Compile"
+xcopy /E /I /Y src\view\*.java "Compile"
+xcopy /E /I /Y src\error\*.java "Compile"
+xcopy /E /I /Y src\interceptor\*.java "Compile"
+xcopy /E /I /Y src\response\*.java "Compile"
+xcopy /E /I /Y src\upload\*.java "Compile"
+xcopy /E /I /Y src\session\*.java "Compile"
+xcopy /E /I /Y src\intake\*.java "Compile"
+xcopy /E /I /Y src\websocket\*.java "Compile"
+xcopy /E /I /Y src\trace\*.java "Compile"
+xcopy /E /I /Y src\warmup\*.java "Compile"
+xcopy /E /I /Y src\snapshot\*.java "Compile"
 xcopy /E /I /Y ..\Test\src\controller\*.java "Compile"
 xcopy /E /I /Y ..\Test\src\model\*.java "Compile"
 
@@ -25,3 +37,11 @@ jar cvf ".\%JAR_FILE%.jar" -C "%bin%" .
 
 REM copie du jar vers la destination 
 xcopy /Y ".\%JAR_FILE%.jar" "%destination%"
+
+REM Précompilation des JSP de l'application (si CATALINA_HOME est défini)
+REM Les servlets générées vont dans WEB-INF\classes et leurs mappings sont ajoutés au web.xml,
+REM la première requête sur chaque vue n'a donc plus à compiler la JSP
+if defined CATALINA_HOME (
+    java -cp "%CATALINA_HOME%\lib\*;%CATALINA_HOME%\bin\tomcat-juli.jar" org.apache.jasper.JspC ^
+        -webapp "..\Test" -d "..\Test\WEB-INF\classes" -addwebxmlmappings -compile -source 17 -target 17
+)
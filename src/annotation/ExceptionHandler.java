@@ -0,0 +1,16 @@
+package annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Méthode de Controller appelée pour les exceptions des types indiqués (et leurs sous-classes).
+// Paramètres acceptés : l'exception, HttpServletRequest, HttpServletResponse.
+// Retour : ModelView (vue), String (HTML) ou tout objet (JSON), null pour le seul statut.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExceptionHandler {
+    Class<? extends Throwable>[] value();
+    int status() default 500;
+}
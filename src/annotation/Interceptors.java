@@ -0,0 +1,16 @@
+package annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import interceptor.HandlerInterceptor;
+
+// Intercepteurs attachés à toutes les routes d'un Controller (TYPE) ou à une seule route (METHOD).
+// Ordre d'exécution : ceux de la classe, puis ceux de la méthode.
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Interceptors {
+    Class<? extends HandlerInterceptor>[] value();
+}
@@ -0,0 +1,21 @@
+package annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Priorité d'une route (ou de toutes les routes d'un Controller) quand le délestage est actif :
+// en surcharge, les routes LOW sont refusées (503) les premières, CRITICAL les dernières. NORMAL sans annotation
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Priority {
+    Level value();
+
+    enum Level {
+        CRITICAL,  // paiement, authentification...
+        HIGH,
+        NORMAL,
+        LOW        // exports, recherches coûteuses, tâches différables
+    }
+}
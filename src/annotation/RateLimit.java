@@ -0,0 +1,21 @@
+package annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Limite de débit d'une route (ou de toutes les routes d'un Controller) : réponse 429 au-delà
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+    double permitsPerSecond();
+    int burst() default 1;
+    Key key() default Key.IP;
+
+    enum Key {
+        IP,      // adresse du client
+        USER,    // utilisateur authentifié (adresse du client pour les anonymes)
+        GLOBAL   // un seul compteur pour la route
+    }
+}
@@ -0,0 +1,12 @@
+package annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Ajoute l'en-tête Server-Timing (durée de chaque phase du traitement) aux réponses de la route ou du Controller
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ServerTiming {
+}
@@ -0,0 +1,14 @@
+package annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Durée maximale d'exécution d'une route (ou de toutes les routes d'un Controller), en millisecondes.
+// Au-delà, la requête reçoit une réponse 504 sans attendre la fin du Controller.
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Timeout {
+    long value();
+}
@@ -8,7 +8,6 @@ import java.lang.reflect.Field;
 
 import exception.ValidationError;
 import exception.ValidationException;
-import other.ModelView;
 
 public class ValidateForm {
     
@@ -43,11 +42,35 @@ public class ValidateForm {
         String message() default "La longueur n'est pas valide";
     }
 
+    // Champs de chaque classe validée, récupérés et rendus accessibles une seule fois ; rattachés à la classe
+    // (ClassValue) pour qu'une classe rechargée à chaud soit libérée avec son chargeur
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            Field[] fields = type.getDeclaredFields();
+            for (Field field : fields) {
+                field.setAccessible(true);
+            }
+            return fields;
+        }
+    };
+
     public ValidationError validateObject(Object obj) throws ValidationException {
+        ValidationError validationError = validate(obj);
+
+        if (validationError.hasErrors()) {
+            // L'exception partage les Maps du ValidationError, sans recopie
+            throw new ValidationException(validationError);
+        }
+
+        return validationError;
+    }
+
+    // Validation sans exception : le résultat indique s'il y a des erreurs
+    public ValidationError validate(Object obj) {
         ValidationError validationError = new ValidationError();
 
-        for (Field field : obj.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
+        for (Field field : getFields(obj.getClass())) {
             try {
                 validateField(field, obj, validationError);
             } catch (IllegalAccessException e) {
@@ -55,17 +78,12 @@ public class ValidateForm {
             }
         }
 
-        if (validationError.hasErrors()) {
-            // On utilise les méthodes existantes pour transférer les erreurs
-            ValidationException ve = new ValidationException();
-            validationError.getFieldErrors().forEach((field, error) -> 
-                ve.addError(field, error)
-            );
-            throw ve;
-        }
-
         return validationError;
     }
+
+    private static Field[] getFields(Class<?> type) {
+        return FIELDS.get(type);
+    }
     
     private void validateField(Field field, Object obj, ValidationError validationError) 
             throws IllegalAccessException {
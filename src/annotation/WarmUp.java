@@ -0,0 +1,15 @@
+package annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Route GET appelée en entier (intercepteurs, Controller, rendu) pendant la mise en température du démarrage.
+// value : paramètres de la requête synthétique, sous forme de query string ("id=1&page=2").
+// À réserver aux routes sans effet de bord
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WarmUp {
+    String value() default "";
+}
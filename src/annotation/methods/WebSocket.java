@@ -0,0 +1,16 @@
+package annotation.methods;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Point d'entrée WebSocket d'un Controller : la méthode reçoit chaque message texte du client.
+// Paramètres possibles (par type) : String (message), WebSocketConnection, MySession, Broadcaster.
+// Une valeur retournée est renvoyée au client (String telle quelle, sinon JSON).
+// @Authentication s'applique comme pour une route HTTP, au moment de l'ouverture de la connexion
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WebSocket {
+    String value();
+}
@@ -3,13 +3,76 @@ package auth;
 import annotation.auth.Authentication;
 import auth.AuthenticationManager;
 import exception.AuthenticationException;
+import interceptor.HandlerInterceptor;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Handler;
+import other.MySession;
+import other.Utils;
+import trace.DispatchEvents;
+import trace.PhaseTimer;
+
+import java.io.IOException;
 import java.lang.reflect.Method;
 
-public class AuthenticationInterceptor {
+public class AuthenticationInterceptor implements HandlerInterceptor {
+
+    // Ajouté à la chaîne d'une route seulement si elle demande une authentification
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Handler handler)
+        throws IOException
+    {
+        try {
+            validateAuthentication(handler.getMethod(), handler.getControllerClass(), request);
+            return true;
+        } catch (AuthenticationException e) {
+            System.err.println("Message d'erreur dans l'authentification de la methode ou dela classe = " +e.getMessage());
+            // Stocker l'URL demandée pour redirection après login
+            MySession.of(request).add("requested_url", Utils.getRelativeURI(request));
+            response.sendRedirect(request.getContextPath() + "/login-page");
+            return false;
+        }
+    }
+
+    // Même règle que validateAuthentication, évaluée une seule fois au démarrage
+    public static boolean requiresAuthentication(Method method, Class<?> clazz) {
+        Authentication classAuth = clazz.getAnnotation(Authentication.class);
+        Authentication methodAuth = method.getAnnotation(Authentication.class);
+
+        if (methodAuth != null && methodAuth.ignoreAuth()) {
+            return false;
+        }
+        return classAuth != null || methodAuth != null;
+    }
     
     public static void validateAuthentication(Method method, Class<?> clazz, HttpServletRequest request) 
         throws AuthenticationException 
+    {
+        PhaseTimer timer = PhaseTimer.of(request);
+        long phaseStart = timer != null ? System.nanoTime() : 0L;
+        DispatchEvents.Authentication event = new DispatchEvents.Authentication();
+        event.begin();
+        String outcome = DispatchEvents.FAILED;
+        try {
+            checkAuthentication(method, clazz, request);
+            outcome = DispatchEvents.OK;
+        } catch (AuthenticationException e) {
+            outcome = DispatchEvents.DENIED;
+            throw e;
+        } finally {
+            if (timer != null) timer.record(PhaseTimer.Phase.AUTH, phaseStart);
+            event.end();
+            if (event.shouldCommit()) {
+                Authentication methodAuth = method.getAnnotation(Authentication.class);
+                Authentication effectiveAuth = methodAuth != null ? methodAuth : clazz.getAnnotation(Authentication.class);
+                event.requiredRole = effectiveAuth != null ? effectiveAuth.value() : null;
+                DispatchEvents.commit(event, request, outcome);
+            }
+        }
+    }
+
+    private static void checkAuthentication(Method method, Class<?> clazz, HttpServletRequest request) 
+        throws AuthenticationException 
     {
         // Vérifier d'abord l'annotation au niveau de la classe
         Authentication classAuth = clazz.getAnnotation(Authentication.class);
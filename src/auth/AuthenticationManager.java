@@ -3,6 +3,8 @@ package auth;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import other.MySession;
+import session.SessionManager;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -10,17 +12,22 @@ import java.io.InputStream;
 import java.util.Properties;
 
 public class AuthenticationManager {
-    private static Properties properties;
     private static final String CONFIG_FILE = "auth.properties";
-    private static String userSessionKey;
-    private static String rolesSessionKey;
 
-    static {
-        loadConfig();
+    // Chargé au premier contrôle d'authentification, pas au chargement de la classe (démarrage plus court)
+    private static final class Config {
+        static final String USER_KEY;
+        static final String ROLES_KEY;
+
+        static {
+            Properties properties = loadConfig();
+            USER_KEY = properties.getProperty("auth.session.user");
+            ROLES_KEY = properties.getProperty("auth.session.roles");
+        }
     }
 
-    private static void loadConfig() {
-        properties = new Properties();
+    private static Properties loadConfig() {
+        Properties properties = new Properties();
         try {
             // Essayer plusieurs méthodes de chargement
             InputStream input = null;
@@ -47,8 +54,6 @@ public class AuthenticationManager {
 
             if (input != null) {
                 properties.load(input);
-                userSessionKey = properties.getProperty("auth.session.user");
-                rolesSessionKey = properties.getProperty("auth.session.roles");
                 input.close();
             } else {
                 throw new RuntimeException("Could not find " + CONFIG_FILE);
@@ -56,32 +61,33 @@ public class AuthenticationManager {
         } catch (Exception e) {
             throw new RuntimeException("Failed to load authentication configuration", e);
         }
+        return properties;
     }
 
+    // Lectures via MySession : HttpSession du conteneur ou SessionStore selon la configuration, sans créer de session
     public static boolean isAuthenticated(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        return session != null && session.getAttribute(userSessionKey) != null;
+        return MySession.of(request).get(Config.USER_KEY) != null;
+    }
+
+    // Utilisateur stocké en session, null si la requête est anonyme (ne crée pas de session)
+    public static Object getUser(HttpServletRequest request) {
+        return MySession.of(request).get(Config.USER_KEY);
     }
 
     public static boolean hasRole(HttpServletRequest request, String requiredRole) {
         if (!isAuthenticated(request)) {
             System.out.println("Debug - Authentication check failed");
-            System.out.println("Debug - Session exists: " + (request.getSession(false) != null));
-            System.out.println("Debug - User key expected: " + userSessionKey);
-            if (request.getSession(false) != null) {
-                System.out.println("Debug - User attribute exists: " + 
-                    (request.getSession().getAttribute(userSessionKey) != null));
-            }
+            System.out.println("Debug - Session exists: " + MySession.of(request).exists());
+            System.out.println("Debug - User key expected: " + Config.USER_KEY);
             return false;
         }
         
-        HttpSession session = request.getSession(false);
-        String userRole = (String) session.getAttribute(rolesSessionKey);
+        String userRole = MySession.of(request).getString(Config.ROLES_KEY);
         
         System.out.println("Debug - Authentication successful");
         System.out.println("Debug - Required role: " + requiredRole);
         System.out.println("Debug - User role found: " + userRole);
-        System.out.println("Debug - Role key used: " + rolesSessionKey);
+        System.out.println("Debug - Role key used: " + Config.ROLES_KEY);
         
         if ("public".equals(requiredRole)) return true;
         if (requiredRole.isEmpty()) return true;
@@ -92,11 +98,30 @@ public class AuthenticationManager {
         return hasRequiredRole;
     }
 
+    // Avec session_store, la HttpSession n'est plus lue : écrire dedans déconnecterait silencieusement l'utilisateur
     public static void setUserRole(HttpSession session, String role) {
-        session.setAttribute(rolesSessionKey, role);
+        requireContainerSessions(session);
+        session.setAttribute(Config.ROLES_KEY, role);
     }
 
     public static void setAuthenticated(HttpSession session, Object userInfo) {
-        session.setAttribute(userSessionKey, userInfo);
+        requireContainerSessions(session);
+        session.setAttribute(Config.USER_KEY, userInfo);
+    }
+
+    private static void requireContainerSessions(HttpSession session) {
+        if (session.getServletContext().getAttribute(SessionManager.CONTEXT_ATTRIBUTE) != null) {
+            throw new IllegalStateException("session_store is configured: use the HttpServletRequest variants of "
+                                            + "AuthenticationManager.setAuthenticated / setUserRole");
+        }
+    }
+
+    // Variantes à utiliser quand session_store est configuré (la HttpSession n'est alors plus lue)
+    public static void setUserRole(HttpServletRequest request, String role) {
+        MySession.of(request).add(Config.ROLES_KEY, role);
+    }
+
+    public static void setAuthenticated(HttpServletRequest request, Object userInfo) {
+        MySession.of(request).add(Config.USER_KEY, userInfo);
     }
 }
\ No newline at end of file
@@ -0,0 +1,289 @@
+package batch;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import error.ErrorMapper;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Utils;
+
+// Point d'entrée /__batch : exécute plusieurs appels de contrôleurs en un seul aller-retour HTTP.
+// Corps attendu : [{"verb":"GET","url":"/users?id=3","params":{"name":"x"},"independent":true}, ...]
+public class BatchProcessor {
+    public static final String BATCH_URI = "/__batch";
+    private static final int DEFAULT_MAX_ITEMS = 50;
+
+    // Rappel vers le pipeline normal (FrontController.dispatch : tampons, ErrorMapper, intercepteurs)
+    public interface ItemDispatcher {
+        void dispatch(HttpServletRequest request, HttpServletResponse response) throws Exception;
+    }
+
+    private final ItemDispatcher dispatcher;
+    private final ErrorMapper errorMapper;
+    private final ExecutorService executor;
+    private final int maxItems;
+
+    public BatchProcessor(ItemDispatcher dispatcher, ErrorMapper errorMapper, ExecutorService executor, int maxItems) {
+        this.dispatcher = dispatcher;
+        this.errorMapper = errorMapper;
+        this.executor = executor;
+        this.maxItems = maxItems;
+    }
+
+    // Paramètres web.xml : batch_threads (0 = toujours séquentiel), batch_max_items
+    public static BatchProcessor fromConfig(ServletConfig config, ItemDispatcher dispatcher, ErrorMapper errorMapper) {
+        int threads = parseInt(config.getInitParameter("batch_threads"), 0);
+        int maxItems = parseInt(config.getInitParameter("batch_max_items"), DEFAULT_MAX_ITEMS);
+
+        ExecutorService executor = null;
+        if (threads > 0) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, "framework-batch-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            executor = Executors.newFixedThreadPool(threads, factory);
+        }
+        return new BatchProcessor(dispatcher, errorMapper, executor, maxItems);
+    }
+
+    public static boolean isBatchRequest(String relativeURI) {
+        return BATCH_URI.equals(relativeURI);
+    }
+
+    public void process(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        JsonArray items;
+        try {
+            JsonElement root = JsonParser.parseReader(request.getReader());
+            if (!root.isJsonArray()) throw new JsonParseException("A JSON array of items is expected");
+            items = root.getAsJsonArray();
+        } catch (JsonParseException | IllegalStateException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid batch body: " + e.getMessage());
+            return;
+        }
+
+        if (items.size() > maxItems) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Batch contains " + items.size() + " items, maximum is " + maxItems);
+            return;
+        }
+
+        boolean parallel = executor != null && Boolean.parseBoolean(request.getParameter("parallel"));
+
+        // Les éléments indépendants partent tout de suite sur l'executor,
+        // les autres s'exécutent dans l'ordre sur le thread courant au moment de leur écriture
+        List<CompletableFuture<BatchResult>> pending = new ArrayList<>(items.size());
+        for (JsonElement element : items) {
+            JsonObject item = element.isJsonObject() ? element.getAsJsonObject() : null;
+            if (parallel && item != null && isTrue(item.get("independent"))) {
+                pending.add(CompletableFuture.supplyAsync(() -> execute(request, response, item), executor));
+            } else {
+                pending.add(null);
+            }
+        }
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginArray();
+
+        for (int i = 0; i < items.size(); i++) {
+            BatchResult result;
+            if (pending.get(i) != null) {
+                result = await(pending.get(i));
+            } else {
+                JsonElement element = items.get(i);
+                result = element.isJsonObject()
+                    ? execute(request, response, element.getAsJsonObject())
+                    : BatchResult.error(HttpServletResponse.SC_BAD_REQUEST, "Batch item must be a JSON object");
+            }
+            result.write(json);
+            // Chaque résultat part dès qu'il est prêt
+            json.flush();
+        }
+
+        json.endArray();
+        json.flush();
+    }
+
+    private BatchResult execute(HttpServletRequest request, HttpServletResponse response, JsonObject item) {
+        // Valeurs mal typées (null, objet, tableau) : 400 pour l'élément, sans couper le tableau déjà commencé
+        if (!isText(item.get("verb")) || !isText(item.get("url"))) {
+            return BatchResult.error(HttpServletResponse.SC_BAD_REQUEST, "Batch item verb and url must be strings");
+        }
+        JsonElement independent = item.get("independent");
+        if (independent != null && !(independent.isJsonPrimitive() && independent.getAsJsonPrimitive().isBoolean())) {
+            return BatchResult.error(HttpServletResponse.SC_BAD_REQUEST, "Batch item independent must be a boolean");
+        }
+        String verb = item.has("verb") ? item.get("verb").getAsString().toUpperCase() : "GET";
+        String url = item.has("url") ? item.get("url").getAsString() : null;
+
+        if (url == null || url.isEmpty()) {
+            return BatchResult.error(HttpServletResponse.SC_BAD_REQUEST, "Batch item has no url");
+        }
+
+        String path = url;
+        String queryString = null;
+        int queryIndex = url.indexOf('?');
+        if (queryIndex >= 0) {
+            path = url.substring(0, queryIndex);
+            queryString = url.substring(queryIndex + 1);
+        }
+
+        if (isBatchRequest(path)) {
+            return BatchResult.error(HttpServletResponse.SC_BAD_REQUEST, "Nested batch requests are not allowed");
+        }
+
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        try {
+            Utils.parseQueryString(queryString, parameters);
+        } catch (IllegalArgumentException e) {
+            return BatchResult.error(HttpServletResponse.SC_BAD_REQUEST, "Invalid query string: " + e.getMessage());
+        }
+        if (item.has("params") && item.get("params").isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : item.getAsJsonObject("params").entrySet()) {
+                parameters.put(entry.getKey(), toValues(entry.getValue()));
+            }
+        }
+
+        BatchRequestWrapper itemRequest = new BatchRequestWrapper(request, verb, path, queryString, parameters);
+        BatchResponseWrapper itemResponse = new BatchResponseWrapper(response);
+
+        try {
+            dispatcher.dispatch(itemRequest, itemResponse);
+            return BatchResult.of(itemResponse);
+        } catch (Exception e) {
+            // Même réponse (et même trace limitée) qu'une requête normale, sans le message de l'exception
+            try {
+                itemResponse.reset();
+                errorMapper.handle(e, itemRequest, itemResponse);
+                return BatchResult.of(itemResponse);
+            } catch (IOException | RuntimeException ignored) {
+                return BatchResult.error(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal Server Error");
+            }
+        }
+    }
+
+    // Absent ou chaîne JSON
+    private static boolean isText(JsonElement value) {
+        return value == null || (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString());
+    }
+
+    private static boolean isTrue(JsonElement value) {
+        return value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isBoolean() && value.getAsBoolean();
+    }
+
+    private static BatchResult await(CompletableFuture<BatchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchResult.error(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Batch interrupted");
+        } catch (ExecutionException e) {
+            return BatchResult.error(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal Server Error");
+        }
+    }
+
+    private static String[] toValues(JsonElement value) {
+        if (value == null || value.isJsonNull()) return new String[0];
+        if (value.isJsonArray()) {
+            JsonArray array = value.getAsJsonArray();
+            String[] values = new String[array.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = array.get(i).isJsonPrimitive() ? array.get(i).getAsString() : array.get(i).toString();
+            }
+            return values;
+        }
+        return new String[] { value.isJsonPrimitive() ? value.getAsString() : value.toString() };
+    }
+
+    public void shutdown() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // Résultat d'un élément : statut, en-têtes utiles et corps (JSON brut si le contrôleur a répondu en JSON)
+    static class BatchResult {
+        private final int status;
+        private final String contentType;
+        private final Map<String, String> headers;
+        private final String body;
+
+        private BatchResult(int status, String contentType, Map<String, String> headers, String body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        static BatchResult of(BatchResponseWrapper response) throws IOException {
+            return new BatchResult(response.getStatus(), response.getContentType(),
+                                    response.getHeaders(), response.getBody());
+        }
+
+        static BatchResult error(int status, String message) {
+            return new BatchResult(status, "text/plain", Map.of(), message);
+        }
+
+        void write(JsonWriter json) throws IOException {
+            json.beginObject();
+            json.name("status").value(status);
+            if (!headers.isEmpty()) {
+                json.name("headers").beginObject();
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    json.name(header.getKey()).value(header.getValue());
+                }
+                json.endObject();
+            }
+            json.name("body");
+            JsonElement parsed = parseJson();
+            if (parsed != null) {
+                // Arbre déjà lu : écrit tel quel, sans seconde lecture du texte
+                Utils.GSON.toJson(parsed, json);
+            } else {
+                json.value(body);
+            }
+            json.endObject();
+        }
+
+        // Corps JSON lu une seule fois, null si le contrôleur n'a pas répondu en JSON valide
+        private JsonElement parseJson() {
+            if (contentType == null || !contentType.startsWith("application/json") || body.trim().isEmpty()) return null;
+            try {
+                return JsonParser.parseString(body);
+            } catch (JsonParseException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package batch;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+
+// Requête "virtuelle" représentant un élément d'un batch :
+// verbe, URL et paramètres propres, attributs locaux, session partagée avec la requête d'origine
+public class BatchRequestWrapper extends HttpServletRequestWrapper {
+    private final HttpServletRequest original;
+    private final String verb;
+    private final String path;
+    private final String queryString;
+    private final Map<String, String[]> parameters;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final Set<String> removedAttributes = new HashSet<>();
+
+    public BatchRequestWrapper(HttpServletRequest original, String verb, String path,
+                                String queryString, Map<String, String[]> parameters) {
+        super(original);
+        this.original = original;
+        this.verb = verb;
+        this.path = path;
+        this.queryString = queryString;
+        this.parameters = Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public String getMethod() {
+        return verb;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return original.getContextPath() + path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer();
+        url.append(original.getScheme()).append("://").append(original.getServerName())
+            .append(':').append(original.getServerPort()).append(getRequestURI());
+        return url;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return (values == null || values.length == 0) ? null : values[0];
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    // Les attributs posés par un élément ne doivent pas fuir vers les autres éléments
+    @Override
+    public Object getAttribute(String name) {
+        if (attributes.containsKey(name)) return attributes.get(name);
+        if (removedAttributes.contains(name)) return null;
+        return original.getAttribute(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) { removeAttribute(name); return; }
+        removedAttributes.remove(name);
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+        removedAttributes.add(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        Set<String> names = new HashSet<>(attributes.keySet());
+        Enumeration<String> originalNames = original.getAttributeNames();
+        while (originalNames.hasMoreElements()) {
+            String name = originalNames.nextElement();
+            if (!removedAttributes.contains(name)) names.add(name);
+        }
+        return Collections.enumeration(names);
+    }
+
+    // Plusieurs éléments peuvent s'exécuter en parallèle : la création de session est sérialisée
+    @Override
+    public HttpSession getSession() {
+        synchronized (original) {
+            return original.getSession();
+        }
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        synchronized (original) {
+            return original.getSession(create);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import annotation.Controller;
+
+// Rechargement à chaud des Controllers (mode dev/ops) : surveille les répertoires de classes du package,
+// recharge seulement les classes modifiées dans un ClassLoader isolé et transmet le résultat au FrontController
+public class ControllerReloader {
+
+    public interface Listener {
+        // changedClasses : classes de premier niveau modifiées ou supprimées
+        // reloadedControllers : nouvelles versions de celles qui sont (encore) des @Controller
+        void controllersChanged(Set<String> changedClasses, List<Class<?>> reloadedControllers);
+    }
+
+    // Délai de regroupement des événements d'une même compilation
+    private static final long QUIET_PERIOD_MILLIS = 300;
+
+    private final String packageName;
+    private final List<File> directories;
+    private final Listener listener;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public ControllerReloader(String packageName, List<File> directories, Listener listener) {
+        this.packageName = packageName;
+        this.directories = directories;
+        this.listener = listener;
+    }
+
+    public void start() throws IOException {
+        keys.clear();
+        watchService = FileSystems.getDefault().newWatchService();
+        for (File directory : directories) {
+            registerAll(directory.toPath());
+        }
+
+        thread = new Thread(this::watch, "framework-controller-reloader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        try {
+            if (watchService != null) watchService.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void registerAll(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path directory : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                WatchKey key = directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+                keys.put(key, directory);
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Set<Path> changedFiles = new HashSet<>();
+                collect(watchService.take(), changedFiles);
+
+                // Une compilation touche plusieurs fichiers : on attend que ça se calme
+                WatchKey next;
+                while ((next = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(next, changedFiles);
+                }
+
+                if (!changedFiles.isEmpty()) reload(changedFiles);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // arrêt normal
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changedFiles) {
+        Path directory = keys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) continue;
+            Path path = directory.resolve((Path) event.context());
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerAll(path);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            } else if (path.toString().endsWith(".class")) {
+                changedFiles.add(path);
+            }
+        }
+        if (!key.reset()) keys.remove(key);
+    }
+
+    private void reload(Set<Path> changedFiles) {
+        Set<String> changedClasses = new HashSet<>();
+        for (Path file : changedFiles) {
+            String className = toClassName(file);
+            if (className != null) changedClasses.add(topLevelName(className));
+        }
+        if (changedClasses.isEmpty()) return;
+
+        // Nouveau ClassLoader à chaque rechargement : les requêtes en cours gardent les anciennes classes
+        ReloadingClassLoader classLoader = new ReloadingClassLoader(
+            Thread.currentThread().getContextClassLoader(), directories, packageName, changedClasses);
+
+        List<Class<?>> reloaded = new ArrayList<>();
+        for (String className : changedClasses) {
+            try {
+                Class<?> clazz = classLoader.loadClass(className);
+                if (clazz.isAnnotationPresent(Controller.class)) reloaded.add(clazz);
+            } catch (ClassNotFoundException e) {
+                // classe supprimée : ses routes disparaissent
+            } catch (LinkageError e) {
+                System.err.println("Hot reload skipped for " + className + ": " + e);
+                return;
+            }
+        }
+
+        listener.controllersChanged(changedClasses, reloaded);
+    }
+
+    private String toClassName(Path file) {
+        for (File directory : directories) {
+            Path root = directory.toPath();
+            if (file.startsWith(root)) {
+                String relative = root.relativize(file).toString();
+                relative = relative.substring(0, relative.length() - ".class".length());
+                return packageName + "." + relative.replace(File.separatorChar, '.');
+            }
+        }
+        return null;
+    }
+
+    private static String topLevelName(String className) {
+        int nested = className.indexOf('$');
+        return nested < 0 ? className : className.substring(0, nested);
+    }
+
+    // Charge en priorité (child-first) les classes modifiées et leurs classes internes depuis le disque,
+    // tout le reste vient du ClassLoader de l'application
+    static class ReloadingClassLoader extends ClassLoader {
+        private final List<File> directories;
+        private final String packageName;
+        private final Set<String> reloadable;
+
+        ReloadingClassLoader(ClassLoader parent, List<File> directories, String packageName, Set<String> reloadable) {
+            super(parent);
+            this.directories = directories;
+            this.packageName = packageName;
+            this.reloadable = reloadable;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!reloadable.contains(topLevelName(name))) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) clazz = findClass(name);
+                if (resolve) resolveClass(clazz);
+                return clazz;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            String relative = name.substring(packageName.length() + 1).replace('.', File.separatorChar) + ".class";
+            for (File directory : directories) {
+                File file = new File(directory, relative);
+                if (file.isFile()) {
+                    try {
+                        byte[] bytes = Files.readAllBytes(file.toPath());
+                        return defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+            }
+            throw new ClassNotFoundException(name);
+        }
+    }
+}
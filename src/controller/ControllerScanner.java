@@ -13,6 +13,17 @@ public class ControllerScanner {
 
     public List<Class<?>> findControllers(String packageName) throws ClassNotFoundException, IOException {
         List<Class<?>> controllers = new ArrayList<>();
+
+        for (File directory : findPackageDirectories(packageName)) {
+            controllers.addAll(findClasses(directory, packageName));
+        }
+
+        return controllers;
+    }
+
+    // Répertoires contenant les classes du package (surveillés aussi par le rechargement à chaud)
+    public List<File> findPackageDirectories(String packageName) throws IOException {
+        List<File> directories = new ArrayList<>();
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
 
         if (classLoader == null) {
@@ -31,11 +42,11 @@ public class ControllerScanner {
                 URL resource = resources.nextElement();
                 String decodedPath = URLDecoder.decode(resource.getFile(), "UTF-8");
                 System.out.println("Found resource: " + decodedPath); // Debug
-                controllers.addAll(findClasses(new File(decodedPath), packageName));
+                directories.add(new File(decodedPath));
             }
         }
 
-        return controllers;
+        return directories;
     }
 
     private List<Class<?>> findClasses(File directory, String packageName) throws ClassNotFoundException {
@@ -0,0 +1,34 @@
+package error;
+
+import java.nio.charset.StandardCharsets;
+
+// Corps d'erreur rendu une seule fois par statut, en HTML et en JSON
+public class ErrorBody {
+    private final int status;
+    private final String html;
+    private final String json;
+    private final byte[] htmlBytes;
+    private final byte[] jsonBytes;
+
+    public ErrorBody(int status, String title, String message) {
+        this.status = status;
+        this.html = "<!DOCTYPE html><html><head><title>" + status + " - " + title + "</title></head><body>"
+                    + "<h1>" + status + " - " + title + "</h1>"
+                    + "<p>" + message + "</p></body></html>";
+        this.json = "{\"status\":" + status + ",\"error\":\"" + title + "\",\"message\":\"" + message + "\"}";
+        this.htmlBytes = html.getBytes(StandardCharsets.UTF_8);
+        this.jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getText(boolean asJson) {
+        return asJson ? json : html;
+    }
+
+    public byte[] getBytes(boolean asJson) {
+        return asJson ? jsonBytes : htmlBytes;
+    }
+}
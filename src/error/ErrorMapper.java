@@ -0,0 +1,247 @@
+package error;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.google.gson.Gson;
+
+import annotation.ExceptionHandler;
+import exception.DeadlineExceededException;
+import exception.UploadQuotaException;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.ModelView;
+import other.Utils;
+
+// Correspondance centralisée exception -> réponse :
+// statut HTTP, méthode @ExceptionHandler éventuelle, corps HTML ou JSON pré-rendu
+public class ErrorMapper {
+    // Posé par FrontController quand la route appelée est une @RestApi
+    public static final String REST_API_ATTRIBUTE = "framework.restApi";
+
+    private static final Map<Integer, String> TITLES = Map.ofEntries(
+        Map.entry(400, "Bad Request"),
+        Map.entry(401, "Unauthorized"),
+        Map.entry(403, "Forbidden"),
+        Map.entry(404, "Page Not Found"),
+        Map.entry(405, "Method Not Allowed"),
+        Map.entry(413, "Payload Too Large"),
+        Map.entry(429, "Too Many Requests"),
+        Map.entry(500, "Internal Server Error"),
+        Map.entry(503, "Service Unavailable"),
+        Map.entry(504, "Gateway Timeout")
+    );
+
+    private static final Map<Integer, String> MESSAGES = Map.of(
+        404, "The requested URL was not found on this server.",
+        500, "An error occurred while processing the request."
+    );
+
+    // Correspondance résolue pour un type d'exception
+    public static class ErrorMapping {
+        private final int status;
+        private final Class<?> controllerClass;
+        private final Method handler;
+
+        public ErrorMapping(int status, Class<?> controllerClass, Method handler) {
+            this.status = status;
+            this.controllerClass = controllerClass;
+            this.handler = handler;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    private final Map<Class<?>, ErrorMapping> registered = new HashMap<>();
+    private final ConcurrentHashMap<Class<?>, ErrorMapping> resolved = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, ErrorBody> bodies = new ConcurrentHashMap<>();
+    private final StackTraceLimiter stackTraces;
+    private final Gson gson = new Gson();
+
+    public ErrorMapper(StackTraceLimiter stackTraces) {
+        this.stackTraces = stackTraces;
+        registered.put(Throwable.class, new ErrorMapping(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, null, null));
+        registered.put(IllegalArgumentException.class, new ErrorMapping(HttpServletResponse.SC_BAD_REQUEST, null, null));
+        registered.put(DeadlineExceededException.class, new ErrorMapping(HttpServletResponse.SC_GATEWAY_TIMEOUT, null, null));
+        registered.put(RejectedExecutionException.class, new ErrorMapping(HttpServletResponse.SC_SERVICE_UNAVAILABLE, null, null));
+        registered.put(UploadQuotaException.class, new ErrorMapping(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, null, null));
+    }
+
+    // Paramètre web.xml : error_stacktraces_per_second (10 par défaut, 0 pour n'en imprimer aucune)
+    public static ErrorMapper fromConfig(ServletConfig config, List<Class<?>> controllers) throws ServletException {
+        String permits = config.getInitParameter("error_stacktraces_per_second");
+        int permitsPerSecond = 10;
+        if (permits != null && !permits.trim().isEmpty()) {
+            try {
+                permitsPerSecond = Integer.parseInt(permits.trim());
+            } catch (NumberFormatException e) {
+                throw new ServletException("error_stacktraces_per_second must be an integer: " + permits);
+            }
+        }
+
+        ErrorMapper mapper = new ErrorMapper(new StackTraceLimiter(permitsPerSecond));
+        if (controllers != null) {
+            for (Class<?> controller : controllers) {
+                mapper.registerHandlers(controller);
+            }
+        }
+        mapper.prepare();
+        return mapper;
+    }
+
+    public void registerHandlers(Class<?> controllerClass) throws ServletException {
+        for (Method method : controllerClass.getDeclaredMethods()) {
+            ExceptionHandler annotation = method.getAnnotation(ExceptionHandler.class);
+            if (annotation == null) continue;
+
+            method.setAccessible(true);
+            for (Class<? extends Throwable> type : annotation.value()) {
+                ErrorMapping existing = registered.get(type);
+                if (existing != null && existing.handler != null) {
+                    throw new ServletException("Duplicate @ExceptionHandler for " + type.getName()
+                        + ": " + existing.handler.getName() + " and " + method.getName());
+                }
+                registered.put(type, new ErrorMapping(annotation.status(), controllerClass, method));
+            }
+        }
+    }
+
+    // Résolution faite au démarrage pour les types connus et pré-rendu des pages d'erreur courantes
+    public void prepare() {
+        resolved.clear();
+        for (Class<?> type : registered.keySet()) {
+            resolve(type);
+        }
+        for (int status : TITLES.keySet()) {
+            getBody(status);
+        }
+    }
+
+    public ErrorMapping resolve(Class<?> type) {
+        ErrorMapping mapping = resolved.get(type);
+        if (mapping != null) return mapping;
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            mapping = registered.get(current);
+            if (mapping != null) break;
+        }
+        resolved.putIfAbsent(type, mapping);
+        return mapping;
+    }
+
+    public ErrorBody getBody(int status) {
+        return bodies.computeIfAbsent(status, s -> new ErrorBody(s,
+            TITLES.getOrDefault(s, "Error"),
+            MESSAGES.getOrDefault(s, "The request could not be processed.")));
+    }
+
+    public void handle(Throwable throwable, HttpServletRequest request, HttpServletResponse response)
+        throws IOException
+    {
+        Throwable error = unwrap(throwable);
+        ErrorMapping mapping = resolve(error.getClass());
+
+        if (mapping.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            stackTraces.print(error);
+        }
+
+        if (response.isCommitted()) return;
+        response.resetBuffer();
+        response.setStatus(mapping.getStatus());
+
+        if (mapping.handler != null) {
+            try {
+                invokeHandler(mapping, error, request, response);
+                return;
+            } catch (Exception e) {
+                stackTraces.print(e);
+                response.resetBuffer();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                writeBody(getBody(HttpServletResponse.SC_INTERNAL_SERVER_ERROR), request, response);
+                return;
+            }
+        }
+
+        writeBody(getBody(mapping.getStatus()), request, response);
+    }
+
+    // Réponse d'erreur pré-rendue pour un statut donné (404, 405...)
+    public void sendStatus(int status, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (response.isCommitted()) return;
+        response.resetBuffer();
+        response.setStatus(status);
+        writeBody(getBody(status), request, response);
+    }
+
+    private void writeBody(ErrorBody body, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean asJson = wantsJson(request);
+        response.setContentType(asJson ? "application/json;charset=UTF-8" : "text/html;charset=UTF-8");
+        ServletOutputStream stream;
+        try {
+            stream = response.getOutputStream();
+        } catch (IllegalStateException e) {
+            // getWriter() a déjà été appelé sur cette réponse
+            response.getWriter().write(body.getText(asJson));
+            return;
+        }
+        byte[] bytes = body.getBytes(asJson);
+        response.setContentLength(bytes.length);
+        stream.write(bytes);
+    }
+
+    private void invokeHandler(ErrorMapping mapping, Throwable error, HttpServletRequest request,
+                                HttpServletResponse response) throws Exception
+    {
+        Class<?>[] parameterTypes = mapping.handler.getParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].isInstance(error)) arguments[i] = error;
+            else if (parameterTypes[i] == HttpServletRequest.class) arguments[i] = request;
+            else if (parameterTypes[i] == HttpServletResponse.class) arguments[i] = response;
+        }
+
+        Object controller = mapping.controllerClass.getConstructor().newInstance();
+        Utils.initializeControllerFields(controller, request);
+        Object result = mapping.handler.invoke(controller, arguments);
+
+        if (result == null) return;
+        if (result instanceof ModelView) {
+            Utils.handleModelView((ModelView) result, request, response);
+        } else if (result instanceof String && !wantsJson(request)) {
+            response.setContentType("text/html;charset=UTF-8");
+            response.getWriter().write((String) result);
+        } else {
+            response.setContentType("application/json;charset=UTF-8");
+            response.getWriter().write(gson.toJson(result));
+        }
+    }
+
+    // JSON pour les routes @RestApi ou quand le client le demande explicitement
+    public static boolean wantsJson(HttpServletRequest request) {
+        if (Boolean.TRUE.equals(request.getAttribute(REST_API_ATTRIBUTE))) return true;
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.contains("application/json") && !accept.contains("text/html");
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        Throwable current = throwable;
+        while (true) {
+            Throwable cause = null;
+            if (current instanceof InvocationTargetException) cause = ((InvocationTargetException) current).getTargetException();
+            else if (current instanceof ServletException) cause = ((ServletException) current).getRootCause();
+            if (cause == null || cause == current) return current;
+            current = cause;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package error;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Limite le nombre de piles d'appels imprimées par seconde : pendant une avalanche d'erreurs,
+// les traces suivantes sont seulement comptées et le total est signalé avec la trace suivante
+public class StackTraceLimiter {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final long interval;
+    private final AtomicLong nextAllowed = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public StackTraceLimiter(int permitsPerSecond) {
+        this.interval = permitsPerSecond <= 0 ? Long.MAX_VALUE : SECOND / permitsPerSecond;
+    }
+
+    public boolean tryAcquire() {
+        if (interval == Long.MAX_VALUE) return false;
+
+        long now = System.nanoTime();
+        long next = nextAllowed.get();
+        if (now - next >= 0 && nextAllowed.compareAndSet(next, now + interval)) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    public void print(Throwable throwable) {
+        if (!tryAcquire()) return;
+
+        long skipped = suppressed.getAndSet(0);
+        if (skipped > 0) {
+            System.err.println(skipped + " stack traces suppressed since the previous one");
+        }
+        throwable.printStackTrace();
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+}
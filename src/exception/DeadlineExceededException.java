@@ -0,0 +1,8 @@
+package exception;
+
+// Échéance de la requête dépassée (réponse 504). Sans pile d'appels : c'est une issue attendue.
+public class DeadlineExceededException extends Exception {
+    public DeadlineExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
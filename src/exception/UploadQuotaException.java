@@ -0,0 +1,10 @@
+package exception;
+
+import java.io.IOException;
+
+// Fichier envoyé trop gros ou quota de stockage atteint (réponse 413)
+public class UploadQuotaException extends IOException {
+    public UploadQuotaException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,28 @@
 package exception;
 
-import java.util.HashMap;
 import java.util.Map;
 import other.ModelView;
 
+// Exception "légère" : aucune pile d'appels n'est capturée, une saisie invalide n'est pas une erreur du programme.
+// Les erreurs sont celles du ValidationError d'origine (mêmes Maps, aucune copie).
 public class ValidationException extends Exception {
     private ModelView modelView;
-    private Map<String, String> validationErrors;
+    private final ValidationError validationError;
     private String redirectUrl;
     
     public ValidationException() {
-        this.validationErrors = new HashMap<>();
+        this(new ValidationError());
+    }
+
+    public ValidationException(ValidationError validationError) {
+        super(null, null, false, false);
+        this.validationError = validationError;
+    }
+
+    public ValidationException(ValidationError validationError, ModelView modelView, String redirectUrl) {
+        this(validationError);
+        this.modelView = modelView;
+        this.redirectUrl = redirectUrl;
     }
     
     public void setRedirectUrl(String url) {
@@ -22,11 +34,15 @@ public class ValidationException extends Exception {
     }
     
     public void addError(String field, String message) {
-        this.validationErrors.put(field, message);
+        this.validationError.addError(field, message);
     }
     
     public Map<String, String> getValidationErrors() {
-        return this.validationErrors;
+        return this.validationError.getFieldErrors();
+    }
+
+    public ValidationError getValidationError() {
+        return this.validationError;
     }
     
     public void setModelView(ModelView modelView) {
@@ -40,9 +56,9 @@ public class ValidationException extends Exception {
     @Override
     public String getMessage() {
         StringBuilder message = new StringBuilder("Validation errors:\n");
-        validationErrors.forEach((field, error) -> {
+        getValidationErrors().forEach((field, error) -> {
             message.append("- ").append(field).append(": ").append(error).append("\n");
         });
         return message.toString();
     }
-}
\ No newline at end of file
+}
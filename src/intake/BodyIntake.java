@@ -0,0 +1,198 @@
+package intake;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import batch.BatchProcessor;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Utils;
+
+// Réception non bloquante des gros corps de requête (E/S asynchrones, ReadListener) :
+// aucun thread n'attend un client lent ; le contrôleur n'est appelé qu'une fois le corps complet.
+// Les requêtes multipart gardent la lecture du conteneur (getPart) ; les gros fichiers passent par /__upload
+public class BodyIntake {
+    private final BatchProcessor.ItemDispatcher dispatcher;
+    private final long minBodyBytes;
+    private final long maxBodyBytes;
+    private final long maxFormBytes;
+    private final long memoryBytes;
+    private final int chunkSize;
+    private final long timeoutMillis;
+    private final Path spillDirectory;
+    private final ArrayBlockingQueue<byte[]> free;
+
+    public BodyIntake(BatchProcessor.ItemDispatcher dispatcher, long minBodyBytes, long maxBodyBytes, long maxFormBytes,
+                      long memoryBytes, int chunkSize, int maxPooled, long timeoutMillis, Path spillDirectory) {
+        this.dispatcher = dispatcher;
+        this.minBodyBytes = minBodyBytes;
+        this.maxBodyBytes = maxBodyBytes > 0 ? maxBodyBytes : Long.MAX_VALUE;
+        this.maxFormBytes = maxFormBytes > 0 ? maxFormBytes : Long.MAX_VALUE;
+        this.memoryBytes = memoryBytes;
+        this.chunkSize = chunkSize;
+        this.timeoutMillis = timeoutMillis;
+        this.spillDirectory = spillDirectory;
+        this.free = new ArrayBlockingQueue<>(Math.max(1, maxPooled));
+    }
+
+    // Paramètres web.xml :
+    // async_intake (false par défaut ; le servlet doit être déclaré <async-supported>true</async-supported>)
+    // intake_min_body_bytes : en dessous, lecture bloquante habituelle (16384 ; un corps sans longueur est toujours lu ici)
+    // intake_max_body_bytes : au-delà, réponse 413 (0 = sans limite)
+    // intake_max_form_bytes : idem pour un formulaire urlencoded, décodé d'un bloc en mémoire (2097152 ; 0 = sans limite)
+    // intake_memory_bytes : part gardée en mémoire par requête avant d'écrire sur le disque (1048576)
+    // intake_chunk_size / intake_pool : taille des morceaux réutilisés (16384) et nombre conservé (256)
+    // intake_timeout_ms : durée maximale de réception d'un corps (600000)
+    // intake_directory : fichiers temporaires (par défaut <répertoire temporaire du conteneur>/intake)
+    public static BodyIntake fromConfig(ServletConfig config, BatchProcessor.ItemDispatcher dispatcher)
+        throws ServletException
+    {
+        if (!Boolean.parseBoolean(config.getInitParameter("async_intake"))) return null;
+
+        int chunkSize = (int) Utils.getInitParameter(config, "intake_chunk_size", 16384L);
+        if (chunkSize <= 0) throw new ServletException("intake_chunk_size must be positive: " + chunkSize);
+        Path directory = Utils.resolveDirectory(config, "intake_directory", "intake");
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new ServletException("Unable to initialize intake directory: " + directory, e);
+        }
+        return new BodyIntake(dispatcher,
+            Utils.getInitParameter(config, "intake_min_body_bytes", 16384L),
+            Utils.getInitParameter(config, "intake_max_body_bytes", 0L),
+            Utils.getInitParameter(config, "intake_max_form_bytes", 2097152L),
+            Utils.getInitParameter(config, "intake_memory_bytes", 1048576L),
+            chunkSize,
+            (int) Utils.getInitParameter(config, "intake_pool", 256L),
+            Utils.getInitParameter(config, "intake_timeout_ms", 600000L),
+            directory);
+    }
+
+    // Corps annoncé assez gros (ou de longueur inconnue), hors multipart
+    public boolean accepts(HttpServletRequest request) {
+        if (!request.isAsyncSupported() || request.isAsyncStarted()) return false;
+        String method = request.getMethod();
+        if (!"POST".equals(method) && !"PUT".equals(method) && !"PATCH".equals(method)) return false;
+
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) return false;
+
+        long length = request.getContentLengthLong();
+        if (length == 0) return false;
+        return length < 0 ? request.getHeader("Transfer-Encoding") != null : length >= minBodyBytes;
+    }
+
+    public void start(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long maxBytes = getMaxBytes(request);
+        if (request.getContentLengthLong() > maxBytes) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Request body exceeds the maximum size of " + maxBytes + " bytes");
+            return;
+        }
+
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(timeoutMillis);
+        ServletInputStream input = request.getInputStream();
+        input.setReadListener(new Intake(async, request, response, input));
+    }
+
+    byte[] acquire() {
+        byte[] chunk = free.poll();
+        return chunk != null ? chunk : new byte[chunkSize];
+    }
+
+    void release(byte[] chunk) {
+        if (chunk.length == chunkSize) free.offer(chunk);
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    // Un formulaire urlencoded est relu en une seule chaîne par getParameter() : limite plus basse
+    long getMaxBytes(HttpServletRequest request) {
+        return isUrlEncodedForm(request.getContentType()) ? Math.min(maxBodyBytes, maxFormBytes) : maxBodyBytes;
+    }
+
+    static boolean isUrlEncodedForm(String contentType) {
+        return contentType != null && contentType.toLowerCase().startsWith("application/x-www-form-urlencoded");
+    }
+
+    Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    // Appelé par le conteneur à chaque arrivée de données, puis une fois le corps complet
+    private class Intake implements ReadListener {
+        private final AsyncContext async;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final ServletInputStream input;
+        private final RequestBody body;
+        private boolean done;
+
+        Intake(AsyncContext async, HttpServletRequest request, HttpServletResponse response, ServletInputStream input) {
+            this.async = async;
+            this.request = request;
+            this.response = response;
+            this.input = input;
+            this.body = new RequestBody(BodyIntake.this, getMaxBytes(request));
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            try {
+                body.readAvailable(input);
+            } catch (RequestBody.BodyTooLargeException e) {
+                fail(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, e.getMessage());
+            }
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            if (done) return;
+            done = true;
+            try {
+                dispatcher.dispatch(new BufferedBodyRequest(request, body), response);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Error dispatching request after body intake", e);
+            } finally {
+                body.release();
+                async.complete();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // client parti ou délai dépassé : rien n'a été transmis au contrôleur
+            if (done) return;
+            done = true;
+            body.release();
+            async.complete();
+        }
+
+        private void fail(int status, String message) throws IOException {
+            if (done) return;
+            done = true;
+            body.release();
+            try {
+                response.sendError(status, message);
+            } finally {
+                async.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package intake;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import other.Utils;
+
+// Requête dont le corps a déjà été reçu (BodyIntake) : getInputStream() / getReader() le relisent,
+// et les paramètres d'un formulaire urlencoded sont décodés depuis ce corps
+class BufferedBodyRequest extends HttpServletRequestWrapper {
+    private final RequestBody body;
+    private Map<String, String[]> parameters;
+    private boolean streamUsed;
+    private BufferedReader reader;
+
+    BufferedBodyRequest(HttpServletRequest request, RequestBody body) {
+        super(request);
+        this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (reader != null) throw new IllegalStateException("getReader() has already been called");
+        streamUsed = true;
+        return new Replay(body.openStream());
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (streamUsed) throw new IllegalStateException("getInputStream() has already been called");
+        if (reader == null) reader = new BufferedReader(new InputStreamReader(body.openStream(), charset()));
+        return reader;
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.size() > Integer.MAX_VALUE ? -1 : (int) body.size();
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.size();
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters().get(name);
+        return (values == null || values.length == 0) ? null : values[0];
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters().get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters();
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters().keySet());
+    }
+
+    // Le conteneur ne peut plus lire le corps : paramètres de l'URL puis du formulaire, décodés ici
+    // (taille du formulaire déjà bornée à la réception, intake_max_form_bytes)
+    private Map<String, String[]> parameters() {
+        if (parameters == null) {
+            Map<String, String[]> values = new LinkedHashMap<>();
+            Charset charset = charset();
+            Utils.parseQueryString(getQueryString(), values);
+            if (BodyIntake.isUrlEncodedForm(getContentType())) {
+                try (InputStream in = body.openStream()) {
+                    Utils.parseQueryString(new String(in.readAllBytes(), charset), charset, values);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to read form body", e);
+                }
+            }
+            parameters = Collections.unmodifiableMap(values);
+        }
+        return parameters;
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    // Corps déjà complet : toujours prêt, jamais bloquant
+    private static class Replay extends ServletInputStream {
+        private final InputStream source;
+        private boolean finished;
+
+        Replay(InputStream source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = source.read();
+            if (value == -1) finished = true;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = source.read(b, off, len);
+            if (read == -1) finished = true;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
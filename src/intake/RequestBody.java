@@ -0,0 +1,128 @@
+package intake;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.servlet.ServletInputStream;
+
+// Corps de requête reçu sans bloquer de thread : morceaux du pool en mémoire,
+// puis fichier temporaire au-delà de la limite mémoire
+class RequestBody {
+    private final BodyIntake intake;
+    private final long maxBytes;
+    private final List<byte[]> chunks = new ArrayList<>(4);
+    private int lastChunkLength;
+    private long size;
+    private Path spillFile;
+    private FileChannel spill;
+
+    RequestBody(BodyIntake intake, long maxBytes) {
+        this.intake = intake;
+        this.maxBytes = maxBytes;
+    }
+
+    // Lit tout ce qui est disponible sans bloquer ; la fin du corps est signalée par onAllDataRead
+    void readAvailable(ServletInputStream input) throws IOException {
+        while (input.isReady()) {
+            byte[] chunk = currentChunk();
+            int read = input.read(chunk, lastChunkLength, chunk.length - lastChunkLength);
+            if (read == -1) return;
+            lastChunkLength += read;
+            size += read;
+            if (size > maxBytes) throw new BodyTooLargeException(maxBytes);
+            if (spill != null && lastChunkLength == chunk.length) flushToSpill();
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    // Relecture du corps complet par le contrôleur
+    InputStream openStream() throws IOException {
+        if (spill != null) {
+            flushToSpill();
+            spill.force(false);
+            return Files.newInputStream(spillFile);
+        }
+        List<InputStream> parts = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            int length = i == chunks.size() - 1 ? lastChunkLength : chunks.get(i).length;
+            parts.add(new ByteArrayInputStream(chunks.get(i), 0, length));
+        }
+        return new SequenceInputStream(Collections.enumeration(parts));
+    }
+
+    void release() {
+        for (byte[] chunk : chunks) {
+            intake.release(chunk);
+        }
+        chunks.clear();
+        if (spill != null) {
+            try {
+                spill.close();
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            spill = null;
+        }
+    }
+
+    private byte[] currentChunk() throws IOException {
+        if (!chunks.isEmpty() && lastChunkLength < chunks.get(chunks.size() - 1).length) {
+            return chunks.get(chunks.size() - 1);
+        }
+        if (spill == null && (long) (chunks.size() + 1) * intake.getChunkSize() > intake.getMemoryBytes()) {
+            startSpill();
+            if (!chunks.isEmpty()) return chunks.get(0);
+        }
+        byte[] chunk = intake.acquire();
+        chunks.add(chunk);
+        lastChunkLength = 0;
+        return chunk;
+    }
+
+    // Les morceaux déjà reçus passent sur le disque ; ensuite un seul morceau sert de tampon d'écriture
+    private void startSpill() throws IOException {
+        spillFile = Files.createTempFile(intake.getSpillDirectory(), "body-", ".tmp");
+        spill = FileChannel.open(spillFile, StandardOpenOption.WRITE);
+        for (int i = 0; i < chunks.size(); i++) {
+            int length = i == chunks.size() - 1 ? lastChunkLength : chunks.get(i).length;
+            write(chunks.get(i), length);
+        }
+        while (chunks.size() > 1) {
+            intake.release(chunks.remove(chunks.size() - 1));
+        }
+        lastChunkLength = 0;
+    }
+
+    private void flushToSpill() throws IOException {
+        if (lastChunkLength == 0 || chunks.isEmpty()) return;
+        write(chunks.get(0), lastChunkLength);
+        lastChunkLength = 0;
+    }
+
+    private void write(byte[] chunk, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, length);
+        while (buffer.hasRemaining()) {
+            spill.write(buffer);
+        }
+    }
+
+    static class BodyTooLargeException extends IOException {
+        BodyTooLargeException(long limit) {
+            super("Request body exceeds the maximum size of " + limit + " bytes");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import annotation.Priority;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import other.Utils;
+
+// Délestage adaptatif : limite de requêtes en cours calculée à partir de la latence observée (gradient).
+// Tant que la latence récente reste proche de la latence de référence, la limite monte ; quand elle grimpe
+// (les requêtes attendent CPU, base, pools...), la limite baisse et les routes les moins prioritaires sont refusées
+// avant les autres, par un 503 immédiat au lieu d'un délai qui s'allonge pour tout le monde.
+// Paramètres web.xml : load_shedding (false par défaut), shed_initial_limit (100), shed_min_limit (10),
+// shed_max_limit (1000), shed_window_ms (100)
+public class AdmissionController {
+    // Attribut du ServletContext sous lequel les compteurs sont exposés
+    public static final String CONTEXT_ATTRIBUTE = "framework.admissionController";
+
+    // Part de la limite ouverte à chaque niveau (ordre de Priority.Level)
+    private static final double[] SHARES = { 1.0, 0.9, 0.75, 0.5 };
+    // Latence récente acceptée jusqu'à 1,5 fois la référence avant de réduire la limite
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    // Référence : moyenne mobile sur environ 600 fenêtres
+    private static final double LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final LongAdder windowLatency = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile long windowStart = System.nanoTime();
+    private volatile double limit;
+    private double longLatency;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder[] shed = new LongAdder[Priority.Level.values().length];
+
+    public AdmissionController(int initialLimit, int minLimit, int maxLimit, long windowMillis) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.windowNanos = Math.max(1L, windowMillis) * 1_000_000L;
+        for (int i = 0; i < shed.length; i++) shed[i] = new LongAdder();
+    }
+
+    // null quand le délestage n'est pas activé
+    public static AdmissionController fromConfig(ServletConfig config) throws ServletException {
+        if (!Boolean.parseBoolean(config.getInitParameter("load_shedding"))) return null;
+
+        int minLimit = (int) Utils.getInitParameter(config, "shed_min_limit", 10L);
+        int maxLimit = (int) Utils.getInitParameter(config, "shed_max_limit", 1000L);
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new ServletException("shed_min_limit must be at least 1 and not above shed_max_limit");
+        }
+        return new AdmissionController((int) Utils.getInitParameter(config, "shed_initial_limit", 100L),
+            minLimit, maxLimit, Utils.getInitParameter(config, "shed_window_ms", 100L));
+    }
+
+    // false : requête à refuser tout de suite
+    public boolean tryAcquire(Priority.Level level) {
+        int threshold = Math.max(1, (int) (limit * SHARES[level.ordinal()]));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= threshold) {
+                shed[level.ordinal()].increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                maxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    // Fin d'une requête admise : sa durée alimente la fenêtre en cours
+    public void release(long startNanos) {
+        inFlight.decrementAndGet();
+        long now = System.nanoTime();
+        windowLatency.add(now - startNanos);
+        windowSamples.increment();
+        if (now - windowStart >= windowNanos && updateLock.tryLock()) {
+            try {
+                if (now - windowStart >= windowNanos) updateLimit(now);
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void updateLimit(long now) {
+        windowStart = now;
+        long samples = windowSamples.sumThenReset();
+        long latency = windowLatency.sumThenReset();
+        int peak = maxInFlight.getAndSet(inFlight.get());
+        if (samples == 0) return;
+
+        double shortLatency = (double) latency / samples;
+        if (longLatency == 0) {
+            longLatency = shortLatency;
+        } else {
+            longLatency += (shortLatency - longLatency) / LONG_WINDOW;
+            // Après un pic, la référence redescend vite pour que la limite remonte
+            if (longLatency > 2 * shortLatency) longLatency *= 0.95;
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double target = current * gradient + Math.sqrt(current);
+        // Trafic trop faible pour remplir la limite : la latence ne dit rien d'une limite plus haute
+        if (peak < current / 2) target = Math.min(target, current);
+
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getShedCount(Priority.Level level) {
+        return shed[level.ordinal()].sum();
+    }
+
+    public long getShedCount() {
+        long total = 0;
+        for (LongAdder counter : shed) total += counter.sum();
+        return total;
+    }
+}
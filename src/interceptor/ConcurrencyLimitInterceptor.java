@@ -0,0 +1,44 @@
+package interceptor;
+
+import java.io.IOException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Deadline;
+import other.Handler;
+import other.Utils;
+
+// Cloison (@MaxConcurrent) : au-delà de la limite, 503 immédiat plutôt qu'une attente sur un thread du conteneur
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+    private final StripedSemaphore semaphore;
+    private final String permitAttribute = "framework.bulkhead." + System.identityHashCode(this);
+
+    public ConcurrencyLimitInterceptor(int maxConcurrent) {
+        this.semaphore = new StripedSemaphore(maxConcurrent);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Handler handler)
+        throws IOException
+    {
+        int stripe = semaphore.tryAcquire();
+        if (stripe < 0) {
+            response.setHeader("Retry-After", "1");
+            Utils.sendStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE, request, response);
+            return false;
+        }
+        request.setAttribute(permitAttribute, stripe);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Handler handler, Exception failure) {
+        Object stripe = request.getAttribute(permitAttribute);
+        if (stripe != null) {
+            request.removeAttribute(permitAttribute);
+            // Controller abandonné à l'échéance : la place reste prise jusqu'à sa vraie fin
+            int permit = (Integer) stripe;
+            Deadline.whenFinished(request, () -> semaphore.release(permit));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package interceptor;
+
+import java.io.IOException;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Handler;
+
+// Traitement transversal autour d'une route (authentification, limitation, cache, métriques...).
+// Les intercepteurs sont partagés entre les requêtes : ils doivent être sans état par requête.
+public interface HandlerInterceptor {
+
+    // Avant l'appel du Controller : false arrête la requête (la réponse a déjà été écrite)
+    default boolean preHandle(HttpServletRequest request, HttpServletResponse response, Handler handler)
+        throws ServletException, IOException
+    {
+        return true;
+    }
+
+    // Après l'appel du Controller, avant le rendu du résultat
+    default void postHandle(HttpServletRequest request, HttpServletResponse response, Handler handler, Object result)
+        throws ServletException, IOException
+    {}
+
+    // Toujours appelé pour les intercepteurs dont preHandle a retourné true, en ordre inverse
+    default void afterCompletion(HttpServletRequest request, HttpServletResponse response, Handler handler, Exception failure)
+        throws ServletException, IOException
+    {}
+}
@@ -0,0 +1,87 @@
+package interceptor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import annotation.Interceptors;
+import annotation.MaxConcurrent;
+import annotation.Priority;
+import annotation.RateLimit;
+import auth.AuthenticationInterceptor;
+import jakarta.servlet.ServletException;
+
+// Construit au démarrage la chaîne d'intercepteurs de chaque route.
+// Une seule instance par classe d'intercepteur, partagée par toutes les routes.
+public class InterceptorRegistry {
+    private final Map<Class<?>, HandlerInterceptor> instances = new HashMap<>();
+    private final List<HandlerInterceptor> globalInterceptors = new ArrayList<>();
+    // null : pas de délestage
+    private AdmissionController admissionController;
+
+    // Intercepteur appliqué à toutes les routes (ajouté en tête de chaîne après l'authentification)
+    public void addGlobal(HandlerInterceptor interceptor) {
+        globalInterceptors.add(interceptor);
+    }
+
+    // Délestage appliqué à toutes les routes, selon leur @Priority
+    public void setAdmissionController(AdmissionController controller) {
+        admissionController = controller;
+    }
+
+    public HandlerInterceptor[] resolve(Class<?> controllerClass, Method method) throws ServletException {
+        List<HandlerInterceptor> chain = new ArrayList<>();
+
+        // En premier : une requête délestée ne passe même pas par l'authentification
+        if (admissionController != null) {
+            Priority priority = method.isAnnotationPresent(Priority.class)
+                ? method.getAnnotation(Priority.class) : controllerClass.getAnnotation(Priority.class);
+            chain.add(new LoadSheddingInterceptor(admissionController,
+                priority != null ? priority.value() : Priority.Level.NORMAL));
+        }
+
+        if (AuthenticationInterceptor.requiresAuthentication(method, controllerClass)) {
+            chain.add(getInstance(AuthenticationInterceptor.class));
+        }
+        chain.addAll(globalInterceptors);
+
+        // Limites propres à la route : une instance par route, l'annotation de la méthode l'emporte
+        RateLimit rateLimit = method.isAnnotationPresent(RateLimit.class)
+            ? method.getAnnotation(RateLimit.class) : controllerClass.getAnnotation(RateLimit.class);
+        if (rateLimit != null) chain.add(new RateLimitInterceptor(rateLimit));
+
+        MaxConcurrent maxConcurrent = method.isAnnotationPresent(MaxConcurrent.class)
+            ? method.getAnnotation(MaxConcurrent.class) : controllerClass.getAnnotation(MaxConcurrent.class);
+        if (maxConcurrent != null) chain.add(new ConcurrencyLimitInterceptor(maxConcurrent.value()));
+
+        Interceptors classInterceptors = controllerClass.getAnnotation(Interceptors.class);
+        if (classInterceptors != null) addAll(chain, classInterceptors);
+
+        Interceptors methodInterceptors = method.getAnnotation(Interceptors.class);
+        if (methodInterceptors != null) addAll(chain, methodInterceptors);
+
+        return chain.toArray(new HandlerInterceptor[0]);
+    }
+
+    private void addAll(List<HandlerInterceptor> chain, Interceptors annotation) throws ServletException {
+        for (Class<? extends HandlerInterceptor> type : annotation.value()) {
+            HandlerInterceptor interceptor = getInstance(type);
+            if (!chain.contains(interceptor)) chain.add(interceptor);
+        }
+    }
+
+    private HandlerInterceptor getInstance(Class<? extends HandlerInterceptor> type) throws ServletException {
+        HandlerInterceptor interceptor = instances.get(type);
+        if (interceptor == null) {
+            try {
+                interceptor = type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new ServletException("Unable to create interceptor: " + type.getName(), e);
+            }
+            instances.put(type, interceptor);
+        }
+        return interceptor;
+    }
+}
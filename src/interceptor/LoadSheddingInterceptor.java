@@ -0,0 +1,52 @@
+package interceptor;
+
+import java.io.IOException;
+
+import annotation.Priority;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Deadline;
+import other.Handler;
+import other.Utils;
+import warmup.WarmUpRunner;
+
+// Délestage (AdmissionController) : une instance par route avec sa priorité, en tête de chaîne
+// pour qu'une requête refusée ne coûte rien de plus
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = "framework.admission.start";
+
+    private final AdmissionController admission;
+    private final Priority.Level level;
+
+    public LoadSheddingInterceptor(AdmissionController admission, Priority.Level level) {
+        this.admission = admission;
+        this.level = level;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Handler handler)
+        throws IOException
+    {
+        // Mise en température : ni place prise ni latence mesurée (afterCompletion ne trouve pas START_ATTRIBUTE)
+        if (WarmUpRunner.isWarmUpRequest(request)) return true;
+        long start = System.nanoTime();
+        if (!admission.tryAcquire(level)) {
+            response.setHeader("Retry-After", "1");
+            Utils.sendStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE, request, response);
+            return false;
+        }
+        request.setAttribute(START_ATTRIBUTE, start);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Handler handler, Exception failure) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            // Controller abandonné à l'échéance : la place et la latence comptent jusqu'à sa vraie fin
+            long startNanos = (Long) start;
+            Deadline.whenFinished(request, () -> admission.release(startNanos));
+        }
+    }
+}
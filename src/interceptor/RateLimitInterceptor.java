@@ -0,0 +1,78 @@
+package interceptor;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import annotation.RateLimit;
+import auth.AuthenticationManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Handler;
+import other.Utils;
+import warmup.WarmUpRunner;
+
+// Limitation de débit par route (@RateLimit) : un seau à jetons par clé (IP, utilisateur ou global)
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final int MAX_KEYS = 10_000;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimit.Key keyType;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final TokenBucket globalBucket;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    // Seau commun des nouvelles clés quand la table est pleine de seaux actifs
+    private final TokenBucket overflowBucket;
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    public RateLimitInterceptor(RateLimit rateLimit) {
+        this.keyType = rateLimit.key();
+        this.permitsPerSecond = rateLimit.permitsPerSecond();
+        this.burst = rateLimit.burst();
+        this.globalBucket = keyType == RateLimit.Key.GLOBAL ? new TokenBucket(permitsPerSecond, burst) : null;
+        this.overflowBucket = new TokenBucket(permitsPerSecond, burst);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Handler handler)
+        throws IOException
+    {
+        if (WarmUpRunner.isWarmUpRequest(request)) return true;
+        long now = System.nanoTime();
+        TokenBucket bucket = globalBucket != null ? globalBucket : bucketFor(resolveKey(request), now);
+
+        long wait = bucket.tryAcquire(now);
+        if (wait == 0) return true;
+
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait) + 1)));
+        Utils.sendStatus(429, request, response);
+        return false;
+    }
+
+    private String resolveKey(HttpServletRequest request) {
+        if (keyType == RateLimit.Key.USER) {
+            Object user = AuthenticationManager.getUser(request);
+            if (user != null) return "user:" + user;
+        }
+        return request.getRemoteAddr();
+    }
+
+    private TokenBucket bucketFor(String key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) return bucket;
+
+        // Nombre de clés borné : les seaux revenus à plein sont retirés sans changer le comportement,
+        // au plus une fois par seconde (un seul thread) plutôt qu'à chaque nouvelle clé
+        if (buckets.size() >= MAX_KEYS) {
+            long next = nextSweep.get();
+            if (now - next >= 0 && nextSweep.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+                buckets.values().removeIf(existing -> existing.isIdle(now));
+            }
+            // Toujours pleine de seaux actifs (clés usurpées en rafale) : les nouvelles clés partagent un seau
+            if (buckets.size() >= MAX_KEYS) return overflowBucket;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst));
+    }
+}
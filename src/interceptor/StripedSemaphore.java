@@ -0,0 +1,33 @@
+package interceptor;
+
+import java.util.concurrent.Semaphore;
+
+// Sémaphore réparti en plusieurs bandes pour limiter la contention entre threads.
+// Uniquement des tryAcquire : aucun thread du conteneur n'est mis en attente.
+public class StripedSemaphore {
+    private final Semaphore[] stripes;
+
+    public StripedSemaphore(int permits) {
+        if (permits <= 0) throw new IllegalArgumentException("permits must be positive");
+        int count = Math.min(permits, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+        stripes = new Semaphore[count];
+        for (int i = 0; i < count; i++) {
+            // Le reste est réparti sur les premières bandes : le total vaut exactement permits
+            stripes[i] = new Semaphore(permits / count + (i < permits % count ? 1 : 0));
+        }
+    }
+
+    // Indice de la bande obtenue, -1 si toutes sont pleines
+    public int tryAcquire() {
+        int start = (int) (Thread.currentThread().getId() % stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            int index = (start + i) % stripes.length;
+            if (stripes[index].tryAcquire()) return index;
+        }
+        return -1;
+    }
+
+    public void release(int index) {
+        stripes[index].release();
+    }
+}
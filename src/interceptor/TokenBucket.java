@@ -0,0 +1,34 @@
+package interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Seau à jetons sans verrou (algorithme GCRA) : un seul AtomicLong, l'heure théorique d'arrivée
+public class TokenBucket {
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be positive");
+        this.emissionInterval = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstTolerance = emissionInterval * Math.max(1, burst);
+    }
+
+    // 0 si le jeton est accordé, sinon le délai d'attente conseillé en nanosecondes
+    public long tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = (tat == Long.MIN_VALUE || tat - now < 0) ? now : tat;
+            long next = start + emissionInterval;
+            long wait = next - now - burstTolerance;
+            if (wait > 0) return wait;
+            if (theoreticalArrival.compareAndSet(tat, next)) return 0;
+        }
+    }
+
+    // Un seau revenu à plein équivaut à un seau neuf : il peut être supprimé
+    public boolean isIdle(long now) {
+        long tat = theoreticalArrival.get();
+        return tat == Long.MIN_VALUE || tat - now <= 0;
+    }
+}
@@ -0,0 +1,94 @@
+package other;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import exception.DeadlineExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+
+// Échéance de la requête, injectable comme MySession (champ ou paramètre de type Deadline).
+// Un Controller coopératif consulte remainingMillis() et la transmet à ses propres appels.
+// À l'échéance, la réponse 504 part sans attendre : le Controller continue sur son thread jusqu'à sa fin
+// (ou jusqu'à l'interruption qu'il reçoit). La requête, la réponse et la session ne lui appartiennent plus,
+// les modifications de session faites après l'échéance sont perdues.
+public class Deadline {
+    public static final String REQUEST_ATTRIBUTE = "framework.deadline";
+    public static final String HEADER = "X-Request-Deadline";
+    // CompletableFuture terminé à la vraie fin d'un Controller abandonné à l'échéance
+    private static final String RUNNING_ATTRIBUTE = "framework.deadline.running";
+
+    private static final Deadline NONE = new Deadline(0L, false);
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    // Échéance = la plus proche entre le délai de la route et le budget (ms) reçu dans X-Request-Deadline.
+    // Le budget du client ne fait que raccourcir un délai existant : sur une route sans délai, l'en-tête est ignoré
+    // (sinon n'importe quel client ferait passer les routes lentes sur l'executor borné des échéances)
+    public static Deadline start(HttpServletRequest request, long routeTimeoutMillis) {
+        if (routeTimeoutMillis <= 0) return NONE;
+        long budget = routeTimeoutMillis;
+
+        String header = request.getHeader(HEADER);
+        if (header != null) {
+            try {
+                budget = Math.min(budget, Math.max(0L, Long.parseLong(header.trim())));
+            } catch (NumberFormatException e) {
+                // en-tête invalide : ignoré
+            }
+        }
+
+        Deadline deadline = new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget), true);
+        request.setAttribute(REQUEST_ATTRIBUTE, deadline);
+        return deadline;
+    }
+
+    // Action à exécuter quand le Controller a vraiment terminé : tout de suite, ou à la fin du thread abandonné
+    public static void whenFinished(HttpServletRequest request, Runnable action) {
+        Object running = request.getAttribute(RUNNING_ATTRIBUTE);
+        if (running instanceof CompletableFuture) {
+            ((CompletableFuture<?>) running).whenComplete((result, failure) -> action.run());
+        } else {
+            action.run();
+        }
+    }
+
+    static void detach(HttpServletRequest request, CompletableFuture<?> finished) {
+        request.setAttribute(RUNNING_ATTRIBUTE, finished);
+    }
+
+    public static Deadline of(HttpServletRequest request) {
+        Object deadline = request.getAttribute(REQUEST_ATTRIBUTE);
+        return deadline instanceof Deadline ? (Deadline) deadline : NONE;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public long remainingNanos() {
+        return bounded ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    public long remainingMillis() {
+        return bounded ? Math.max(0L, TimeUnit.NANOSECONDS.toMillis(remainingNanos())) : Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return bounded && remainingNanos() <= 0;
+    }
+
+    public void check() throws DeadlineExceededException {
+        if (isExpired()) throw new DeadlineExceededException("Request deadline exceeded");
+    }
+
+    // Valeur à transmettre dans X-Request-Deadline aux services appelés
+    public String toHeaderValue() {
+        return bounded ? String.valueOf(remainingMillis()) : null;
+    }
+}
@@ -4,11 +4,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import upload.StoredFile;
 
 public class FileUpload {
     private String fileName;
     private String filePath;
     private byte[] fileData;
+    private StoredFile storedFile;  // contenu déjà enregistré par l'UploadStore
 
     public FileUpload(String fileName, String filePath, byte[] fileData) {
         this.fileName = fileName;
@@ -16,6 +20,13 @@ public class FileUpload {
         this.fileData = fileData;
     }
 
+    // Contenu dans l'UploadStore (nom = clé SHA-256) : pas de dossier tant que saveFile() n'en a pas reçu un,
+    // l'emplacement réel est donné par getPath()
+    public FileUpload(String fileName, StoredFile storedFile) {
+        this.fileName = fileName;
+        this.storedFile = storedFile;
+    }
+
     // Getters et setters
     public String getFileName() {
         return fileName;
@@ -33,16 +44,44 @@ public class FileUpload {
         this.filePath = filePath;
     }
 
+    // Contenu lu depuis le stockage seulement si on le demande
     public byte[] getFileData() {
+        if (fileData == null && storedFile != null) {
+            try {
+                fileData = Files.readAllBytes(storedFile.getPath());
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read stored upload " + storedFile.getKey(), e);
+            }
+        }
         return fileData;
     }
 
+    public StoredFile getStoredFile() {
+        return storedFile;
+    }
+
+    public long getSize() {
+        if (storedFile != null) return storedFile.getSize();
+        return fileData != null ? fileData.length : 0;
+    }
+
+    // Emplacement du contenu sur le disque
+    public Path getPath() {
+        return storedFile != null && filePath == null ? storedFile.getPath() : Paths.get(filePath, fileName);
+    }
+
     public void setFileData(byte[] fileData) {
         this.fileData = fileData;
     }
 
     // Méthode pour enregistrer le fichier sur le disque
     public void saveFile() throws IOException {
+        if (storedFile != null && fileData == null) {
+            if (filePath == null) return;  // reste dans l'UploadStore
+            // Copie sous getFilePath()/getFileName() : le contenu du stockage est partagé et ne doit pas être modifié
+            Files.copy(storedFile.getPath(), Paths.get(filePath, fileName), StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
         Path path = Paths.get(filePath, fileName);
         Files.write(path, fileData);
     }
@@ -0,0 +1,98 @@
+package other;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import annotation.ServerTiming;
+import annotation.Timeout;
+import annotation.methods.RestApi;
+import interceptor.HandlerInterceptor;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Route résolue au démarrage : classe, méthode et chaîne d'intercepteurs figée
+public class Handler {
+    private static final HandlerInterceptor[] NO_INTERCEPTORS = new HandlerInterceptor[0];
+
+    private final String url;
+    private final String verb;
+    private final Class<?> controllerClass;
+    private final Method method;
+    private final HandlerInterceptor[] interceptors;
+    private final boolean restApi;
+    private final boolean serverTiming;
+    private final long timeoutMillis;
+
+    public Handler(String url, String verb, Class<?> controllerClass, Method method,
+                    HandlerInterceptor[] interceptors, long defaultTimeoutMillis) {
+        this.url = url;
+        this.verb = verb;
+        this.controllerClass = controllerClass;
+        this.method = method;
+        this.interceptors = (interceptors == null || interceptors.length == 0) ? NO_INTERCEPTORS : interceptors;
+        this.restApi = method.isAnnotationPresent(RestApi.class);
+        this.serverTiming = method.isAnnotationPresent(ServerTiming.class)
+            || controllerClass.isAnnotationPresent(ServerTiming.class);
+
+        // @Timeout de la méthode, sinon celui de la classe, sinon la valeur globale
+        Timeout timeout = method.isAnnotationPresent(Timeout.class)
+            ? method.getAnnotation(Timeout.class) : controllerClass.getAnnotation(Timeout.class);
+        this.timeoutMillis = timeout != null ? timeout.value() : defaultTimeoutMillis;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getVerb() {
+        return verb;
+    }
+
+    public Class<?> getControllerClass() {
+        return controllerClass;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public HandlerInterceptor[] getInterceptors() {
+        return interceptors;
+    }
+
+    public boolean hasInterceptors() {
+        return interceptors.length > 0;
+    }
+
+    public boolean isRestApi() {
+        return restApi;
+    }
+
+    // @ServerTiming sur la méthode ou le Controller
+    public boolean isServerTiming() {
+        return serverTiming;
+    }
+
+    // 0 : pas de délai propre à la route
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void applyPostHandle(HttpServletRequest request, HttpServletResponse response, Object result)
+        throws ServletException, IOException
+    {
+        for (int i = interceptors.length - 1; i >= 0; i--) {
+            interceptors[i].postHandle(request, response, this, result);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Handler{" +
+                "verb='" + verb + '\'' +
+                ", url='" + url + '\'' +
+                ", method='" + controllerClass.getName() + "." + method.getName() + '\'' +
+                '}';
+    }
+}
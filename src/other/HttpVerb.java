@@ -0,0 +1,45 @@
+package other;
+
+import java.lang.reflect.Method;
+
+import annotation.methods.Delete;
+import annotation.methods.Patch;
+import annotation.methods.Post;
+import annotation.methods.Put;
+
+// Verbes HTTP gérés par le framework ; l'ordinal sert d'index dans les Mapping (ordre de l'en-tête Allow)
+public enum HttpVerb {
+    GET, HEAD, POST, PUT, DELETE, PATCH, OPTIONS;
+
+    public static final int COUNT = values().length;
+
+    // Verbe de la requête (ou d'une VerbAction en minuscules), null s'il n'est pas géré
+    public static HttpVerb of(String method) {
+        if (method == null) return null;
+        switch (method) {
+            case "GET": case "get": return GET;
+            case "POST": case "post": return POST;
+            case "HEAD": case "head": return HEAD;
+            case "PUT": case "put": return PUT;
+            case "DELETE": case "delete": return DELETE;
+            case "PATCH": case "patch": return PATCH;
+            case "OPTIONS": case "options": return OPTIONS;
+            default:
+                String upper = method.toUpperCase();
+                return upper.equals(method) ? null : of(upper);
+        }
+    }
+
+    // Verbe déclaré par annotation sur une méthode de Controller, GET par défaut
+    public static HttpVerb of(Method method) {
+        if (method.isAnnotationPresent(Post.class)) return POST;
+        if (method.isAnnotationPresent(Put.class)) return PUT;
+        if (method.isAnnotationPresent(Delete.class)) return DELETE;
+        if (method.isAnnotationPresent(Patch.class)) return PATCH;
+        return GET;
+    }
+
+    public String lowerCaseName() {
+        return name().toLowerCase();
+    }
+}
@@ -1,20 +1,23 @@
 package other;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.HashSet;
 
 public class Mapping {
 
     private String className;
-    private Set<VerbAction> verbMethodes = new HashSet<>();
+    // Une VerbAction par verbe, indexée par HttpVerb.ordinal() : sélection du verbe en O(1)
+    private VerbAction[] verbActions = new VerbAction[HttpVerb.COUNT];
+    // En-tête Allow (OPTIONS, 405), calculé une fois
+    private String allow;
 
     public Mapping() {}
 
     public Mapping(String className, VerbAction verbMethod) {
         setClassName(className);
-        this.verbMethodes = new HashSet<>();
-        this.verbMethodes.add(verbMethod);
+        addVerbMethod(verbMethod);
     }
 
     public String getClassName() {
@@ -26,15 +29,70 @@ public class Mapping {
     }
 
     public Set<VerbAction> getVerbMethodes() {
-        return verbMethodes;
+        Set<VerbAction> verbMethodes = new LinkedHashSet<>();
+        for (VerbAction verbAction : verbActions) {
+            if (verbAction != null) verbMethodes.add(verbAction);
+        }
+        return Collections.unmodifiableSet(verbMethodes);
     }
 
     public void setVerbMethodes(Set<VerbAction> verbMethodes) {
-        this.verbMethodes = verbMethodes;
+        this.verbActions = new VerbAction[HttpVerb.COUNT];
+        this.allow = null;
+        for (VerbAction verbAction : verbMethodes) {
+            addVerbMethod(verbAction);
+        }
     }
 
     public void addVerbMethod(VerbAction verbMethod) {
-        this.verbMethodes.add(verbMethod);
+        HttpVerb verb = HttpVerb.of(verbMethod.getVerbe());
+        if (verb == null) throw new IllegalArgumentException("Unsupported HTTP verb: " + verbMethod.getVerbe());
+        this.verbActions[verb.ordinal()] = verbMethod;
+        this.allow = null;
+    }
+
+    public VerbAction getVerbAction(HttpVerb verb) {
+        return verbActions[verb.ordinal()];
+    }
+
+    // Copie indépendante, utilisée par les instantanés de RouteRegistry (l'original peut encore être modifié)
+    public Mapping frozenCopy() {
+        Mapping copy = new Mapping();
+        copy.className = className;
+        copy.verbActions = verbActions.clone();
+        copy.allow = copy.getAllowHeader();
+        return copy;
+    }
+
+    // Route correspondant au verbe HTTP de la requête, null si aucune ; HEAD se rabat sur GET
+    public Handler getHandler(HttpVerb verb) {
+        VerbAction verbAction = verbActions[verb.ordinal()];
+        if (verbAction == null && verb == HttpVerb.HEAD) verbAction = verbActions[HttpVerb.GET.ordinal()];
+        return verbAction != null ? verbAction.getHandler() : null;
+    }
+
+    public Handler getHandler(String httpMethod) {
+        HttpVerb verb = HttpVerb.of(httpMethod);
+        return verb != null ? getHandler(verb) : null;
+    }
+
+    // Verbes acceptés : ceux déclarés, HEAD si GET existe, OPTIONS toujours
+    public String getAllowHeader() {
+        String value = allow;
+        if (value != null) return value;
+
+        StringBuilder builder = new StringBuilder();
+        for (HttpVerb verb : HttpVerb.values()) {
+            boolean allowed = verbActions[verb.ordinal()] != null
+                || (verb == HttpVerb.HEAD && verbActions[HttpVerb.GET.ordinal()] != null)
+                || verb == HttpVerb.OPTIONS;
+            if (!allowed) continue;
+            if (builder.length() > 0) builder.append(", ");
+            builder.append(verb.name());
+        }
+        value = builder.toString();
+        allow = value;
+        return value;
     }
 
     @Override
@@ -49,11 +107,9 @@ public class Mapping {
         }
 
         // Vérification que chaque VerbMethod dans this.verbMethodes existe dans l'autre Mapping
-        if (verbMethodes != null && !verbMethodes.isEmpty()) {
-            for (VerbAction vm : verbMethodes) {
-                if (!mapping.getVerbMethodes().contains(vm)) {
-                    return false;
-                }
+        for (int i = 0; i < verbActions.length; i++) {
+            if (verbActions[i] != null && !verbActions[i].equals(mapping.verbActions[i])) {
+                return false;
             }
         }
 
@@ -64,14 +120,14 @@ public class Mapping {
 
     @Override
     public int hashCode() {
-        return Objects.hash(className, verbMethodes);
+        return Objects.hash(className, getVerbMethodes());
     }
 
     // Méthode toString
     @Override
     public String toString() {
         return "Mapping{" +
-                "methodName='" + verbMethodes + '\'' +
+                "methodName='" + getVerbMethodes() + '\'' +
                 ", className='" + className + '\'' +
                 '}';
     }
@@ -1,9 +1,24 @@
 package other;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import session.SessionContext;
 
+// Session paresseuse : une lecture n'ouvre jamais de session (getSession(false)),
+// la session HTTP (et son cookie) n'est créée qu'à la première écriture.
+// Avec un SessionStore configuré (session_store), la HttpSession du conteneur n'est plus utilisée.
+// Les valeurs lues sont gardées le temps de la requête
 public class MySession {
+    public static final String REQUEST_ATTRIBUTE = "framework.mySession";
+    private static final Object ABSENT = new Object();
+
+    private HttpServletRequest request;
     private HttpSession session;
+    private SessionContext context;
+    private final Map<String, Object> cache = new HashMap<>();
 
     public MySession(){}
 
@@ -11,19 +26,129 @@ public class MySession {
         this.session = session;
     }
 
+    public MySession(HttpServletRequest request) {
+        this.request = request;
+        this.context = SessionContext.of(request);
+    }
+
+    // Une seule instance par requête : champ et paramètre du Controller partagent le même cache
+    public static MySession of(HttpServletRequest request) {
+        Object existing = request.getAttribute(REQUEST_ATTRIBUTE);
+        if (existing instanceof MySession) return (MySession) existing;
+        MySession mySession = new MySession(request);
+        request.setAttribute(REQUEST_ATTRIBUTE, mySession);
+        return mySession;
+    }
+
     public Object get(String key) {
-        Object value = session.getAttribute(key);
-        System.out.println("Session GET - Key: " + key + ", Value: " + value);
-        return value;
+        Object value = cache.get(key);
+        if (value == null) {
+            if (context != null) {
+                value = context.get(key);
+            } else {
+                HttpSession current = session(false);
+                value = current != null ? current.getAttribute(key) : null;
+            }
+            cache.put(key, value != null ? value : ABSENT);
+        }
+        return value == ABSENT ? null : value;
+    }
+
+    public <T> T get(String key, Class<T> type) {
+        Object value = get(key);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    public String getString(String key) {
+        Object value = get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Object value = get(key);
+        if (value instanceof Number) return ((Number) value).intValue();
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Object value = get(key);
+        if (value instanceof Number) return ((Number) value).longValue();
+        if (value instanceof String) {
+            try {
+                return Long.parseLong(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = get(key);
+        if (value instanceof Boolean) return (Boolean) value;
+        if (value instanceof String) return Boolean.parseBoolean((String) value);
+        return defaultValue;
+    }
+
+    public boolean contains(String key) {
+        return get(key) != null;
     }
 
     public void add(String key, Object object) {
-        System.out.println("Session ADD - Key: " + key + ", Value: " + object);
-        session.setAttribute(key, object);
+        if (object == null) {
+            delete(key);
+            return;
+        }
+        if (context != null) {
+            context.set(key, object);
+        } else {
+            session(true).setAttribute(key, object);
+        }
+        cache.put(key, object);
     }
 
     public void delete(String key) {
-        System.out.println("Session DELETE - Key: " + key);
-        session.removeAttribute(key);
+        if (context != null) {
+            context.remove(key);
+        } else {
+            HttpSession current = session(false);
+            if (current != null) current.removeAttribute(key);
+        }
+        cache.put(key, ABSENT);
+    }
+
+    // Une session existe-t-elle déjà (sans la créer)
+    public boolean exists() {
+        return context != null ? context.exists() : session(false) != null;
+    }
+
+    public void invalidate() {
+        if (context != null) {
+            context.invalidate();
+            cache.clear();
+            return;
+        }
+        HttpSession current = session(false);
+        if (current != null) {
+            try {
+                current.invalidate();
+            } catch (IllegalStateException e) {
+                // déjà invalidée
+            }
+        }
+        session = null;
+        cache.clear();
+    }
+
+    private HttpSession session(boolean create) {
+        if (session == null && request != null) session = request.getSession(create);
+        return session;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package other;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import interceptor.InterceptorRegistry;
+import jakarta.servlet.ServletException;
+import snapshot.RouteSnapshot;
+
+// Registre des routes : les lectures (une par requête) se font sans verrou sur un instantané immuable,
+// les écritures (démarrage, rechargement à chaud, plugins, feature flags) sont sérialisées
+// et publient un nouvel instantané d'un seul coup (copy-on-write)
+public class RouteRegistry {
+    // Attribut du ServletContext sous lequel le FrontController expose son registre
+    public static final String CONTEXT_ATTRIBUTE = "framework.routeRegistry";
+
+    private final InterceptorRegistry interceptorRegistry;
+    private final long defaultTimeoutMillis;
+    private volatile RouteTable routes = RouteTable.EMPTY;
+    private volatile List<Class<?>> controllers = List.of();
+
+    public RouteRegistry(InterceptorRegistry interceptorRegistry, long defaultTimeoutMillis) {
+        this.interceptorRegistry = interceptorRegistry;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    // Instantané courant : à lire une seule fois par requête
+    public RouteTable snapshot() {
+        return routes;
+    }
+
+    public Mapping get(String url) {
+        return routes.get(url);
+    }
+
+    public List<Class<?>> getControllers() {
+        return controllers;
+    }
+
+    // Ajoute toutes les routes @Url des Controllers donnés
+    public synchronized void registerControllers(List<Class<?>> newControllers)
+        throws ServletException, NoSuchMethodException
+    {
+        List<Class<?>> nextControllers = new ArrayList<>(controllers);
+        nextControllers.addAll(newControllers);
+        Utils.validateUniqueMappingValues(nextControllers);
+
+        HashMap<String, Mapping> next = new HashMap<>(routes);
+        addControllerRoutes(next, newControllers);
+        publish(next, nextControllers);
+    }
+
+    // Routes d'un instantané de démarrage, déjà validées quand il a été écrit : seules les chaînes d'intercepteurs
+    // sont reconstruites. Une méthode introuvable fait échouer la restauration (le scan complet prend le relais)
+    public synchronized void restoreControllers(List<Class<?>> restoredControllers, List<RouteSnapshot.Route> restoredRoutes)
+        throws ServletException, NoSuchMethodException
+    {
+        Map<String, Class<?>> byName = new HashMap<>();
+        for (Class<?> controller : restoredControllers) byName.put(controller.getName(), controller);
+
+        HashMap<String, Mapping> next = new HashMap<>(routes);
+        for (RouteSnapshot.Route route : restoredRoutes) {
+            Class<?> controller = byName.get(route.className);
+            if (controller == null) throw new ServletException("Unknown controller in snapshot: " + route.className);
+            Method method = Utils.findMethod(controller, route.methodName);
+            VerbAction verbAction = new VerbAction(route.verb, route.methodName);
+            verbAction.setHandler(newHandler(route.url, route.verb, controller, method));
+            merge(next, route.url, controller.getName(), verbAction);
+        }
+
+        List<Class<?>> nextControllers = new ArrayList<>(controllers);
+        nextControllers.addAll(restoredControllers);
+        publish(next, nextControllers);
+    }
+
+    // Remplace les routes des classes modifiées (rechargement à chaud) ; les autres instantanés restent intacts
+    public synchronized void replaceControllers(Set<String> changedClasses, List<Class<?>> reloadedControllers)
+        throws ServletException, NoSuchMethodException
+    {
+        List<Class<?>> nextControllers = new ArrayList<>();
+        for (Class<?> controller : controllers) {
+            if (!changedClasses.contains(controller.getName())) nextControllers.add(controller);
+        }
+        nextControllers.addAll(reloadedControllers);
+        Utils.validateUniqueMappingValues(nextControllers);
+
+        // Une URL peut mêler des verbes de plusieurs classes : on ne retire que ceux des classes modifiées
+        HashMap<String, Mapping> next = new HashMap<>();
+        routes.forEach((url, mapping) -> {
+            Set<VerbAction> kept = new HashSet<>();
+            for (VerbAction verbAction : mapping.getVerbMethodes()) {
+                if (!changedClasses.contains(verbAction.getHandler().getControllerClass().getName())) kept.add(verbAction);
+            }
+            if (kept.size() == mapping.getVerbMethodes().size()) next.put(url, mapping);
+            else if (!kept.isEmpty()) next.put(url, copyWith(mapping.getClassName(), kept));
+        });
+        addControllerRoutes(next, reloadedControllers);
+        publish(next, nextControllers);
+    }
+
+    // Enregistre une route isolée à l'exécution (plugin, feature flag)
+    public synchronized void register(String url, String verb, Class<?> controllerClass, Method method)
+        throws ServletException
+    {
+        String normalizedVerb = verb.toLowerCase();
+        if (Utils.isMappingDuplicate(routes, url, normalizedVerb)) {
+            throw new ServletException("Route already registered: " + verb.toUpperCase() + " " + url);
+        }
+
+        VerbAction verbAction = new VerbAction(normalizedVerb, method.getName());
+        verbAction.setHandler(newHandler(url, normalizedVerb, controllerClass, method));
+
+        HashMap<String, Mapping> next = new HashMap<>(routes);
+        merge(next, url, controllerClass.getName(), verbAction);
+        publish(next, controllers);
+    }
+
+    // Retire une URL (tous verbes confondus), false si elle n'était pas enregistrée
+    public synchronized boolean unregister(String url) {
+        if (!routes.containsKey(url)) return false;
+
+        HashMap<String, Mapping> next = new HashMap<>(routes);
+        next.remove(url);
+        publish(next, controllers);
+        return true;
+    }
+
+    // Retire un seul verbe d'une URL
+    public synchronized boolean unregister(String url, String verb) {
+        Mapping existing = routes.get(url);
+        if (existing == null || !Utils.isMappingDuplicate(routes, url, verb)) return false;
+
+        Set<VerbAction> remaining = new HashSet<>();
+        for (VerbAction verbAction : existing.getVerbMethodes()) {
+            if (!verbAction.getVerbe().equalsIgnoreCase(verb)) remaining.add(verbAction);
+        }
+
+        HashMap<String, Mapping> next = new HashMap<>(routes);
+        if (remaining.isEmpty()) next.remove(url);
+        else next.put(url, copyWith(existing.getClassName(), remaining));
+        publish(next, controllers);
+        return true;
+    }
+
+    // Mappings construits ici puis figés : rien ne les modifie après publication
+    private void addControllerRoutes(HashMap<String, Mapping> next, List<Class<?>> newControllers)
+        throws ServletException, NoSuchMethodException
+    {
+        if (newControllers == null || newControllers.isEmpty()) {
+            System.out.println("No controllers found");
+            return;
+        }
+
+        for (Class<?> controller : newControllers) {
+            System.out.println("Scanning controller: " + controller.getName());
+            HashMap<String, Mapping> added = new HashMap<>();
+            Utils.findMethodsAnnotated(controller, added);
+
+            for (Map.Entry<String, Mapping> entry : added.entrySet()) {
+                for (VerbAction verbAction : entry.getValue().getVerbMethodes()) {
+                    Method method = Utils.findMethod(controller, verbAction.getMethode());
+                    verbAction.setHandler(newHandler(entry.getKey(), verbAction.getVerbe(), controller, method));
+                    merge(next, entry.getKey(), controller.getName(), verbAction);
+                }
+            }
+        }
+    }
+
+    // Ajoute un verbe à l'URL sans toucher au Mapping déjà publié
+    private static void merge(HashMap<String, Mapping> next, String url, String className, VerbAction verbAction) {
+        Mapping existing = next.get(url);
+        Mapping mapping = existing != null ? existing.frozenCopy() : new Mapping();
+        if (existing == null) mapping.setClassName(className);
+        mapping.addVerbMethod(verbAction);
+        next.put(url, mapping.frozenCopy());
+    }
+
+    private static Mapping copyWith(String className, Set<VerbAction> verbActions) {
+        Mapping mapping = new Mapping();
+        mapping.setClassName(className);
+        mapping.setVerbMethodes(verbActions);
+        return mapping.frozenCopy();
+    }
+
+    private Handler newHandler(String url, String verb, Class<?> controllerClass, Method method)
+        throws ServletException
+    {
+        return new Handler(url, verb, controllerClass, method,
+                            interceptorRegistry.resolve(controllerClass, method), defaultTimeoutMillis);
+    }
+
+    private void publish(Map<String, Mapping> next, List<Class<?>> nextControllers) {
+        this.controllers = Collections.unmodifiableList(new ArrayList<>(nextControllers));
+        this.routes = new RouteTable(next);
+    }
+}
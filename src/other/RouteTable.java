@@ -0,0 +1,113 @@
+package other;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import response.StaticFragment;
+
+// Instantané immuable de la table des routes : adressage ouvert sur des tableaux (clés, empreintes, valeurs),
+// lecture sans verrou ni allocation. Une modification produit toujours un nouvel instantané.
+public final class RouteTable extends AbstractMap<String, Mapping> {
+    public static final RouteTable EMPTY = new RouteTable(Map.of());
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final Mapping[] values;
+    private final int mask;
+    private final int size;
+    private volatile StaticFragment debugListing;
+
+    public RouteTable(Map<String, Mapping> routes) {
+        int capacity = Integer.highestOneBit(Math.max(2, routes.size() * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.values = new Mapping[capacity];
+        this.mask = capacity - 1;
+        this.size = routes.size();
+
+        for (Map.Entry<String, Mapping> entry : routes.entrySet()) {
+            int hash = spread(entry.getKey().hashCode());
+            int index = hash & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = entry.getKey();
+            hashes[index] = hash;
+            values[index] = entry.getValue();
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // Liste des routes affichée par Utils.displayDebugInfo, rendue au premier usage
+    public StaticFragment getDebugListing() {
+        StaticFragment listing = debugListing;
+        if (listing == null) {
+            listing = new StaticFragment(Utils.renderDebugListing(this));
+            debugListing = listing;
+        }
+        return listing;
+    }
+
+    @Override
+    public Mapping get(Object key) {
+        if (!(key instanceof String)) return null;
+        String url = (String) key;
+        int hash = spread(url.hashCode());
+        for (int index = hash & mask; keys[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == hash && keys[index].equals(url)) return values[index];
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Mapping>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Mapping>>() {
+            @Override
+            public Iterator<Map.Entry<String, Mapping>> iterator() {
+                return new Iterator<Map.Entry<String, Mapping>>() {
+                    private int index = advance(0);
+
+                    private int advance(int from) {
+                        while (from < keys.length && keys[from] == null) from++;
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, Mapping> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Map.Entry<String, Mapping> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index = advance(index + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
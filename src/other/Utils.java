@@ -6,19 +6,74 @@ import java.util.*;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import com.google.gson.Gson;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import annotation.*;
 import annotation.field.ModelField;
-import annotation.methods.Get;
-import annotation.methods.Post;
 import annotation.methods.RestApi;
 import annotation.methods.Url;
 import exception.*;
+import response.BufferedResponse;
+import response.FieldSelection;
+import response.FileResponse;
+import response.StaticFragment;
+import upload.ChunkedUploads;
+import upload.UploadStore;
+import trace.DispatchEvents;
+import trace.PhaseTimer;
+import view.ViewRendererRegistry;
+import websocket.Broadcaster;
+import error.ErrorMapper;
 
 public class Utils {
-    static String pathDestinationFile = "C:\\Program Files\\Apache Software Foundation\\Tomcat 10.1\\webapps\\Test\\assets\\file";  
+    private static ViewRendererRegistry viewRenderers;
+    public static final Gson GSON = new Gson();
+
+    // Fragments HTML fixes encodés une seule fois
+    private static final StaticFragment DEBUG_TITLE = new StaticFragment("<h1>FrameWork : </h1>\n");
+    private static final StaticFragment WELCOME = new StaticFragment("<h1>Welcome to the Home Page!</h1>\n");
+    private static final StaticFragment EXECUTING = new StaticFragment("<p>Executing method:</p>\n");
+    private static final StaticFragment NO_RESULT = new StaticFragment("<p>Method executed, no result to display.</p>\n");
+    private static final StaticFragment RESULT = new StaticFragment("<p>Method result:</p>\n");
+
+    private static ErrorMapper errorMapper;
+    private static ExecutorService invocationExecutor;
+    private static UploadStore uploadStore;
+    private static Broadcaster broadcaster;
+
+    public static void setViewRenderers(ViewRendererRegistry renderers) {
+        viewRenderers = renderers;
+    }
+
+    public static void setErrorMapper(ErrorMapper mapper) {
+        errorMapper = mapper;
+    }
+
+    // Stockage des fichiers reçus (FileUpload)
+    public static void setUploadStore(UploadStore store) {
+        uploadStore = store;
+    }
+
+    // Diffusion WebSocket injectée dans les champs Broadcaster des Controllers
+    public static void setBroadcaster(Broadcaster instance) {
+        broadcaster = instance;
+    }
+
+    // Threads d'exécution des Controllers soumis à une échéance
+    public static void setInvocationExecutor(ExecutorService executor) {
+        invocationExecutor = executor;
+    }
 
 
     // Initialize controller base package from web.xml
@@ -33,6 +88,30 @@ public class Utils {
         return controllerPackage;
     }
 
+    // Paramètre numérique de web.xml, valeur par défaut s'il est absent
+    public static long getInitParameter(ServletConfig config, String name, long defaultValue) 
+        throws ServletException 
+    {
+        String value = config.getInitParameter(name);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ServletException(name + " must be a number in web.xml: " + value);
+        }
+    }
+
+    // Répertoire donné dans web.xml, sinon un sous-répertoire du répertoire temporaire du conteneur
+    public static Path resolveDirectory(ServletConfig config, String parameter, String defaultName) {
+        String directory = config.getInitParameter(parameter);
+        if (directory != null && !directory.trim().isEmpty()) return Paths.get(directory.trim());
+
+        ServletContext context = config.getServletContext();
+        Object tempDir = context != null ? context.getAttribute(ServletContext.TEMPDIR) : null;
+        if (tempDir instanceof File) return ((File) tempDir).toPath().resolve(defaultName);
+        return Paths.get(System.getProperty("java.io.tmpdir"), "framework-" + defaultName);
+    }
+
     public static void validateUniqueMappingValues(List<Class<?>> controllers) 
         throws ServletException 
     {
@@ -44,39 +123,75 @@ public class Utils {
             for (Method method : controller.getDeclaredMethods()) {
                 if (method.isAnnotationPresent(Url.class)) {
                     String url = method.getAnnotation(Url.class).value();
-                    validateUrlUniqueness(url, urlMethodMap, controller, method);
+                    validateUrlUniqueness(url, HttpVerb.of(method), urlMethodMap, controller, method);
+                }
+            }
+        }
+    }
+
+    // Vues référencées statiquement (redirectOnError des @ModelParam), vérifiées au démarrage
+    public static Set<String> findReferencedViews(List<Class<?>> controllers) {
+        Set<String> views = new HashSet<>();
+        if (controllers == null) return views;
+
+        for (Class<?> controller : controllers) {
+            for (Method method : controller.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Url.class)) continue;
+                for (Parameter parameter : method.getParameters()) {
+                    ModelParam modelParam = parameter.getAnnotation(ModelParam.class);
+                    if (modelParam != null && !modelParam.redirectOnError().isEmpty()) {
+                        views.add(modelParam.redirectOnError());
+                    }
                 }
             }
         }
+        return views;
     }
 
-    private static void validateUrlUniqueness( String url, HashMap<String, String> urlMethodMap,
+    // Une même URL peut porter plusieurs verbes, mais un seul handler par verbe
+    private static void validateUrlUniqueness( String url, HttpVerb verb, HashMap<String, String> urlMethodMap,
                                                             Class<?> controller, Method method ) 
         throws ServletException 
     {
         if (url == null) throw new ServletException("URL mapping value is null for method: " + method.getName());
 
-        if (urlMethodMap.containsKey(url)) {
-            String existingMethod = urlMethodMap.get(url);
-            throw new ServletException(String.format("Duplicate mapping value '%s' found. URL already exists for method: %s and method: %s.", url, existingMethod, method.getName()));
+        String key = verb + " " + url;
+        if (urlMethodMap.containsKey(key)) {
+            String existingMethod = urlMethodMap.get(key);
+            throw new ServletException(String.format("Duplicate mapping value '%s' found for %s. URL already exists for method: %s and method: %s.", url, verb, existingMethod, method.getName()));
         }
 
-        urlMethodMap.put(url, controller.getName() + "." + method.getName());
+        urlMethodMap.put(key, controller.getName() + "." + method.getName());
     }
 
     public static String getRelativeURI(HttpServletRequest request) {
         return request.getRequestURI().substring(request.getContextPath().length());
     }
 
-    public static void displayDebugInfo(PrintWriter out, String relativeURI, HashMap<String, Mapping> methodList) {
-        out.println("<h1>FrameWork : </h1>");
+    public static void displayDebugInfo(PrintWriter out, HttpServletResponse response, String relativeURI, 
+                                        Map<String, Mapping> methodList) 
+        throws IOException 
+    {
+        DEBUG_TITLE.writeTo(out, response);
         out.println("<h2>Requested URL: " + relativeURI + "</h2>");
+
+        // Liste des routes rendue une fois par table (elle ne change qu'avec la table)
+        if (methodList instanceof RouteTable) {
+            ((RouteTable) methodList).getDebugListing().writeTo(out, response);
+            return;
+        }
+        out.print(renderDebugListing(methodList));
+    }
+
+    static String renderDebugListing(Map<String, Mapping> methodList) {
+        StringBuilder listing = new StringBuilder();
         methodList.forEach((key, mapping) -> {
             for (VerbAction verbAction : mapping.getVerbMethodes()) {
-                out.println("Mapping - Path: " + key + "|           Class: " + mapping.getClassName() +
-                    ",              Method: " + verbAction.getMethode() + "<br>");
+                listing.append("Mapping - Path: ").append(key).append("|           Class: ").append(mapping.getClassName())
+                    .append(",              Method: ").append(verbAction.getMethode()).append("<br>\n");
             }
         });
+        return listing.toString();
     }
 
     public static void displayFormData(PrintWriter out, HashMap<String, String> formData) {
@@ -84,14 +199,14 @@ public class Utils {
     }
 
     public static void executeMappingMethod(String relativeURI, 
-                                        HashMap<String, Mapping> methodList,
+                                        Map<String, Mapping> methodList,
                                         PrintWriter out, HttpServletRequest request, 
                                         HttpServletResponse response, HashMap<String, 
-                                        String> formData) 
+                                        String> formData, Handler handler) 
     throws ServletException, IOException, NoSuchMethodException, ClassNotFoundException, ValidationException 
     {
         if (relativeURI == null || relativeURI.trim().isEmpty()) {
-            out.println("<h1>Welcome to the Home Page!</h1>");
+            WELCOME.writeTo(out, response);
             return;
         }
         
@@ -103,13 +218,8 @@ public class Utils {
             return;
         }
         
-        if (!isHttpMethodValid(mapping, request.getMethod())) {
-            handleError("<h1>400</h1>  HTTP method " + request.getMethod() + " is not allowed for this endpoint.", request, response);
-            return;
-        }
-
-        out.println("<p>Executing method:</p>");
-        invokeMethod(mapping, out, request, response, formData);
+        EXECUTING.writeTo(out, response);
+        invokeMethod(mapping, out, request, response, formData, handler);
     }
 
     public static Method findMethod(Class<?> clazz, String methodName) 
@@ -124,55 +234,153 @@ public class Utils {
 
     public static void invokeMethod(Mapping mapping, PrintWriter out, 
                                     HttpServletRequest request, HttpServletResponse response, 
-                                    HashMap<String, String> formData) 
+                                    HashMap<String, String> formData, Handler handler) 
         throws ServletException, IOException, ValidationException 
     {
         try {
-            Class<?> controllerClass = Class.forName(mapping.getClassName());
+            // Classe résolue au démarrage (ou au dernier rechargement à chaud)
+            Class<?> controllerClass = handler != null ? handler.getControllerClass() : Class.forName(mapping.getClassName());
             Object controllerInstance = controllerClass.getConstructor().newInstance();
-            initializeMySessionAttributes(controllerInstance, request);
+            initializeControllerFields(controllerInstance, request);
 
-            Object result = executeControllerMethod(mapping, request, controllerInstance, response);
-            for (VerbAction verbAction : mapping.getVerbMethodes()) {
-                processMethodResult(result, findMethod(controllerClass, verbAction.getMethode()), out, request, response);
+            // Un seul handler par requête : celui du verbe, choisi par le FrontController
+            Method method = handler != null ? handler.getMethod() : findHandlerMethod(mapping, request, controllerClass);
+            Object result = executeControllerMethod(method, request, controllerInstance, response);
+            if (handler != null && handler.hasInterceptors()) {
+                handler.applyPostHandle(request, response, result);
             }
-            
-        } catch (Exception e) {
-            
-            if (e instanceof ValidationException) throw (ValidationException) e;
-
-            System.out.println(e.getMessage() + "Suite de probleme" );
-            e.printStackTrace();
-            
-            handleError("Error invoking method: " + e.getMessage(), request, response);
+            processMethodResult(result, method, out, request, response);
+        } catch (InvocationTargetException e) {
+            // Exception du Controller telle quelle : afterCompletion des intercepteurs la reçoit,
+            // puis FrontController.dispatch() la confie à l'ErrorMapper
+            Throwable target = e.getTargetException();
+            if (target instanceof RuntimeException) throw (RuntimeException) target;
+            if (target instanceof Error) throw (Error) target;
+            if (target instanceof IOException) throw (IOException) target;
+            if (target instanceof ServletException) throw (ServletException) target;
+            if (target instanceof ValidationException) throw (ValidationException) target;
+            throw new ServletException(target);
+        } catch (ReflectiveOperationException | DeadlineExceededException e) {
+            throw new ServletException(e);
         }
+    }
 
-        
-        // Throw encore l'exception du bas 
+    // Méthode du verbe de la requête quand aucun Handler n'a été résolu (HEAD se rabat sur GET)
+    private static Method findHandlerMethod(Mapping mapping, HttpServletRequest request, Class<?> controllerClass)
+        throws NoSuchMethodException
+    {
+        HttpVerb verb = HttpVerb.of(request.getMethod());
+        VerbAction verbAction = verb != null ? mapping.getVerbAction(verb) : null;
+        if (verbAction == null && verb == HttpVerb.HEAD) verbAction = mapping.getVerbAction(HttpVerb.GET);
+        if (verbAction == null) throw new NoSuchMethodException("No method mapped for " + request.getMethod());
+        return findMethod(controllerClass, verbAction.getMethode());
     }
 
-    public static Object executeControllerMethod(Mapping mapping, HttpServletRequest request, 
+    public static Object executeControllerMethod(Method method, HttpServletRequest request, 
                                                 Object controllerInstance, HttpServletResponse response) 
-        throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, IOException, ServletException, ValidationException 
+        throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, IOException, ServletException, ValidationException, DeadlineExceededException 
     {
-        Object obj = new Object(); 
-        ValidateForm checkers = new ValidateForm();
+        Object[] params = getMethodParams(method, request);
 
-        for (VerbAction verbAction : mapping.getVerbMethodes()) {
-            Method method = findMethod(controllerInstance.getClass(), verbAction.getMethode());
-            Object[] params = getMethodParams(method, request);
-            obj = method.invoke(controllerInstance, params);
+        PhaseTimer timer = PhaseTimer.of(request);
+        long phaseStart = timer != null ? System.nanoTime() : 0L;
+        DispatchEvents.Invocation event = new DispatchEvents.Invocation();
+        event.begin();
+        String outcome = DispatchEvents.FAILED;
+        try {
+            Object result = invokeWithDeadline(method, controllerInstance, params, request);
+            outcome = DispatchEvents.OK;
+            return result;
+        } catch (DeadlineExceededException e) {
+            outcome = DispatchEvents.TIMEOUT;
+            throw e;
+        } finally {
+            if (timer != null) timer.record(PhaseTimer.Phase.CONTROLLER, phaseStart);
+            event.end();
+            if (event.shouldCommit()) {
+                event.controller = method.getDeclaringClass();
+                event.method = method.getName();
+                DispatchEvents.commit(event, request, outcome);
+            }
         }
         
-        return obj;
-        
         
         // Throw encore l'exception du bas 
     }
 
+    // Avec une échéance, le Controller s'exécute sur un autre thread et l'attente est abandonnée à l'échéance.
+    // Un Controller déjà démarré continue : sa vraie fin est suivie par Deadline.whenFinished
+    private static Object invokeWithDeadline(Method method, Object controllerInstance, Object[] params,
+                                             HttpServletRequest request) 
+        throws IllegalAccessException, InvocationTargetException, ServletException, DeadlineExceededException 
+    {
+        Deadline deadline = Deadline.of(request);
+        if (!deadline.isBounded() || invocationExecutor == null) {
+            return method.invoke(controllerInstance, params);
+        }
+
+        deadline.check();
+        // Pris par la tâche au démarrage, ou par la requête si elle abandonne avant : le Controller ne démarre plus
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        Future<Object> future = invocationExecutor.submit(() -> {
+            if (!claimed.compareAndSet(false, true)) return null;
+            try {
+                return method.invoke(controllerInstance, params);
+            } finally {
+                finished.complete(null);
+            }
+        });
+        try {
+            return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            if (!claimed.compareAndSet(false, true)) Deadline.detach(request, finished);
+            throw new DeadlineExceededException("Request deadline exceeded in " + method.getName());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            if (!claimed.compareAndSet(false, true)) Deadline.detach(request, finished);
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while waiting for " + method.getName());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InvocationTargetException) throw (InvocationTargetException) cause;
+            if (cause instanceof IllegalAccessException) throw (IllegalAccessException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new ServletException(cause);
+        }
+    }
+
     // Get method parameters from the request
     public static Object[] getMethodParams(Method method, HttpServletRequest request) 
         throws ServletException, IOException, ValidationException 
+    {
+        PhaseTimer timer = PhaseTimer.of(request);
+        long phaseStart = timer != null ? System.nanoTime() : 0L;
+        DispatchEvents.Binding event = new DispatchEvents.Binding();
+        event.begin();
+        String outcome = DispatchEvents.FAILED;
+        try {
+            Object[] paramValues = bindMethodParams(method, request);
+            outcome = DispatchEvents.OK;
+            return paramValues;
+        } catch (ValidationException e) {
+            outcome = DispatchEvents.INVALID;
+            throw e;
+        } finally {
+            if (timer != null) timer.record(PhaseTimer.Phase.BINDING, phaseStart);
+            event.end();
+            if (event.shouldCommit()) {
+                event.parameters = method.getParameterCount();
+                event.requestBytes = request.getContentLengthLong();
+                DispatchEvents.commit(event, request, outcome);
+            }
+        }
+    }
+
+    private static Object[] bindMethodParams(Method method, HttpServletRequest request) 
+        throws ServletException, IOException, ValidationException 
     {
         Parameter[] parameters = method.getParameters();
         Object[] paramValues = new Object[parameters.length];
@@ -182,18 +390,10 @@ public class Utils {
             ModelParam modelParam = parameters[i].getAnnotation(ModelParam.class);
 
             if (parameters[i].getType().equals(FileUpload.class)) {
-                // Récupérer le fichier
-                Part filePart = request.getPart(param.name());
-                String fileName = Paths.get(filePart.getSubmittedFileName()).getFileName().toString();
-                InputStream fileContent = filePart.getInputStream();
-
-                // Convertir en byte[]
-                byte[] fileData = new byte[fileContent.available()];
-                fileContent.read(fileData);
-
-                // Créer une instance de FileUpload
-                FileUpload fileUpload = new FileUpload(fileName, pathDestinationFile , fileData);
-                paramValues[i] = fileUpload;
+                // Fichier déjà assemblé par /__upload, sinon récupéré et confié à l'UploadStore
+                Object completed = request.getAttribute(ChunkedUploads.attributeName(param.name()));
+                paramValues[i] = completed instanceof FileUpload
+                    ? completed : createFileUpload(request.getPart(param.name()));
             } 
             
             else {
@@ -221,7 +421,10 @@ public class Utils {
             return resolveModelParam(parameter, modelParam, request);
         }
         if (parameter.getType().equals(MySession.class)) {
-            return new MySession(request.getSession());
+            return MySession.of(request);
+        }
+        if (parameter.getType().equals(Deadline.class)) {
+            return Deadline.of(request);
         }
         return null;
 
@@ -249,36 +452,29 @@ public class Utils {
                 throw new ServletException("redirectOnError must be specified in @ModelParam annotation");
             }
             
-            try {
-                // Validation
-                ValidateForm validator = new ValidateForm();
-                validator.validateObject(paramInstance);
+            // Validation sans exception : la ModelView d'erreur n'est construite qu'en cas d'échec
+            PhaseTimer timer = PhaseTimer.of(request);
+            long phaseStart = timer != null ? System.nanoTime() : 0L;
+            DispatchEvents.Validation event = new DispatchEvents.Validation();
+            event.begin();
+            ValidationError validationError = new ValidateForm().validate(paramInstance);
+            if (timer != null) timer.record(PhaseTimer.Phase.VALIDATION, phaseStart);
+            event.end();
+            if (event.shouldCommit()) {
+                event.modelClass = paramInstance.getClass();
+                event.errors = validationError.getFieldErrors().size();
+                DispatchEvents.commit(event, request, validationError.hasErrors() ? DispatchEvents.INVALID : DispatchEvents.OK);
+            }
+            if (!validationError.hasErrors()) {
                 return paramInstance;
-            } catch (ValidationException ve) {
-                // Configuration de la ModelView pour la redirection
-                ModelView errorView = new ModelView();
-                errorView.setUrl(redirectUrl);
-                
-                // On utilise directement getValidationErrors() pour récupérer les erreurs
-                errorView.add("fieldErrors", ve.getValidationErrors());
-                
-                // Pour les valeurs des champs, on doit les récupérer à partir de l'objet
-                Map<String, String> fieldValues = new HashMap<>();
-                for (Field field : paramInstance.getClass().getDeclaredFields()) {
-                    field.setAccessible(true);
-                    Object value = field.get(paramInstance);
-                    if (value != null) {
-                        fieldValues.put(field.getName(), value.toString());
-                    }
-                }
-                errorView.add("fieldValues", fieldValues);
-                
-                // Configuration de l'exception
-                ve.setModelView(errorView);
-                ve.setRedirectUrl(redirectUrl);
-                
-                throw ve;
             }
+
+            // Les erreurs et les valeurs saisies sont celles du ValidationError, sans recopie
+            ModelView errorView = new ModelView();
+            errorView.setUrl(redirectUrl);
+            errorView.setValidationError(validationError);
+
+            throw new ValidationException(validationError, errorView, redirectUrl);
         } catch (Exception e) {
             if (e instanceof ValidationException) throw (ValidationException) e;
             throw new ServletException("Unable to instantiate parameter: " + parameter.getType().getName(), e);
@@ -297,20 +493,19 @@ public class Utils {
             if (field.getType().equals(FileUpload.class)) {
                 Part filePart;
                 try {
+                    Object completed = request.getAttribute(ChunkedUploads.attributeName(attributeName + "." + paramName));
+                    if (completed instanceof FileUpload) {
+                        field.setAccessible(true);
+                        field.set(instance, completed);
+                        continue;
+                    }
+
                     // Récupérer le fichier depuis la requête
                     filePart = request.getPart(attributeName + "." + paramName);
                     
                     if (filePart != null && filePart.getSize() > 0) {
-                        // Lire le contenu du fichier
-                        InputStream fileContent = filePart.getInputStream();
-                        String fileName = Paths.get(filePart.getSubmittedFileName()).getFileName().toString();
-                        
-                        // Convertir en byte[]
-                        byte[] fileData = new byte[fileContent.available()];
-                        fileContent.read(fileData);
-                        
                         // Créer une instance de FileUpload et l'assigner au champ
-                        FileUpload fileUpload = new FileUpload(fileName, Utils.pathDestinationFile, fileData);
+                        FileUpload fileUpload = createFileUpload(filePart);
                         field.setAccessible(true);
                         field.set(instance, fileUpload);
                     }
@@ -332,6 +527,15 @@ public class Utils {
     }
 
     
+    // Le contenu passe en flux vers l'UploadStore (haché et dédupliqué), sans être chargé en mémoire
+    static FileUpload createFileUpload(Part filePart) throws IOException {
+        String fileName = Paths.get(filePart.getSubmittedFileName()).getFileName().toString();
+        if (uploadStore == null) throw new IllegalStateException("No UploadStore configured (FrontController not initialized)");
+        try (InputStream fileContent = filePart.getInputStream()) {
+            return new FileUpload(fileName, uploadStore.store(fileName, fileContent, filePart.getSize()));
+        }
+    }
+
     private static void setFieldValue(Object instance, Field field, String value) 
         throws ServletException 
     {
@@ -365,23 +569,20 @@ public class Utils {
         return null;
     }
 
-    private static boolean isHttpMethodValid(Mapping mapping, String requestMethod) {
-        for (VerbAction verbAction : mapping.getVerbMethodes()) {
-            String mappedVerb = verbAction.getVerbe();
-            if (mappedVerb.equalsIgnoreCase(requestMethod)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    public static void initializeMySessionAttributes(Object controllerInstance, HttpServletRequest request) 
+    // Champs injectés dans le Controller : MySession, Deadline et Broadcaster
+    public static void initializeControllerFields(Object controllerInstance, HttpServletRequest request) 
         throws IllegalAccessException 
     {
         for (Field field : controllerInstance.getClass().getDeclaredFields()) {
             if (field.getType().equals(MySession.class)) {
                 field.setAccessible(true);
-                field.set(controllerInstance, new MySession(request.getSession()));
+                field.set(controllerInstance, MySession.of(request));
+            } else if (field.getType().equals(Deadline.class)) {
+                field.setAccessible(true);
+                field.set(controllerInstance, Deadline.of(request));
+            } else if (field.getType().equals(Broadcaster.class) && broadcaster != null) {
+                field.setAccessible(true);
+                field.set(controllerInstance, broadcaster);
             }
         }
     }
@@ -390,31 +591,83 @@ public class Utils {
                                             PrintWriter out, HttpServletRequest request, 
                                             HttpServletResponse response) 
         throws ServletException, IOException 
+    {
+        PhaseTimer timer = PhaseTimer.of(request);
+        long phaseStart = timer != null ? System.nanoTime() : 0L;
+        DispatchEvents.Render event = new DispatchEvents.Render();
+        event.begin();
+        String outcome = DispatchEvents.FAILED;
+        try {
+            renderMethodResult(result, method, out, request, response);
+            outcome = DispatchEvents.OK;
+        } finally {
+            if (timer != null) timer.record(PhaseTimer.Phase.RENDER, phaseStart);
+            event.end();
+            if (event.shouldCommit()) {
+                event.resultType = result != null ? result.getClass() : null;
+                event.responseBytes = response instanceof BufferedResponse ? ((BufferedResponse) response).getBufferedSize() : -1;
+                DispatchEvents.commit(event, request, outcome);
+            }
+        }
+    }
+
+    private static void renderMethodResult(Object result, Method method, 
+                                            PrintWriter out, HttpServletRequest request, 
+                                            HttpServletResponse response) 
+        throws ServletException, IOException 
     {
         if (result == null) 
-        {    out.println("<p>Method executed, no result to display.</p>");   return;    }
+        {    NO_RESULT.writeTo(out, response);   return;    }
+
+        // Fichier envoyé tel quel, sans texte de debug autour
+        if (result instanceof FileResponse) 
+        {    ((FileResponse) result).send(request, response);   return;    }
 
-        out.println("<p>Method result:</p>");
+        RESULT.writeTo(out, response);
         
         if (result instanceof ModelView) 
         {    handleModelView((ModelView) result, request, response);     }
 
         else if (method.isAnnotationPresent(RestApi.class)) 
         {
-            response.setContentType("application/json");
-            Gson gson = new Gson();
-            out.println(gson.toJson(result));
+            response.setContentType("application/json;charset=UTF-8");
+            writeJson(result, out, response, FieldSelection.of(request.getParameter(FieldSelection.PARAMETER)));
         } 
 
         else 
         {    out.println(result.toString());   }
     }
 
+    // JSON sérialisé directement en octets UTF-8 dans le flux (tampons de la BufferedResponse), sans String intermédiaire.
+    // Avec ?fields=..., seuls les champs sélectionnés sont lus et écrits
+    private static void writeJson(Object result, PrintWriter out, HttpServletResponse response, FieldSelection fields)
+        throws IOException 
+    {
+        if (!(response instanceof BufferedResponse)) {
+            if (fields == null) {
+                out.println(GSON.toJson(result));
+                return;
+            }
+            fields.write(result, GSON.newJsonWriter(out), GSON);
+            out.println();
+            return;
+        }
+        Writer json = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        if (fields == null) GSON.toJson(result, json);
+        else fields.write(result, GSON.newJsonWriter(json), GSON);
+        json.write('\n');
+        json.flush();
+    }
+
     // Handle a ModelView result (Forward to JSP)
     public static void handleModelView(ModelView modelView, HttpServletRequest request, 
                                         HttpServletResponse response) 
         throws ServletException, IOException 
     {
+        if (viewRenderers != null) {
+            viewRenderers.render(modelView, request, response);
+            return;
+        }
         modelView.getData().forEach(request::setAttribute);
         request.getRequestDispatcher("/" + modelView.getUrl()).forward(request, response);
     }
@@ -429,10 +682,26 @@ public class Utils {
         // request.getRequestDispatcher("/error.jsp").forward(request, response);
     }
 
+    // Réponse d'erreur courte pour un statut (429, 503...), pré-rendue quand l'ErrorMapper est disponible
+    public static void sendStatus(int status, HttpServletRequest request, HttpServletResponse response) 
+        throws IOException 
+    {
+        if (errorMapper != null) {
+            errorMapper.sendStatus(status, request, response);
+            return;
+        }
+        response.setStatus(status);
+    }
+
     // Méthode pour gérer l'erreur 404
     public static void handleError404(HttpServletRequest request ,HttpServletResponse response) 
         throws ServletException, IOException 
     {
+        // Page 404 pré-rendue
+        if (errorMapper != null) {
+            errorMapper.sendStatus(HttpServletResponse.SC_NOT_FOUND, request, response);
+            return;
+        }
         response.setStatus(HttpServletResponse.SC_NOT_FOUND); // Réponse HTTP 404
         response.getWriter().println("<h1>404 - Page Not Found</h1>");
         response.getWriter().println("<p>The requested URL was not found on this server.</p>");
@@ -443,13 +712,35 @@ public class Utils {
 
     public static String setVerbString( Method method ) {
 
-        if (method.isAnnotationPresent(Get.class)) 
-        {    return "get";      } 
-        else if (method.isAnnotationPresent(Post.class)) 
-        {    return "post";     }
+        // @Get, @Post, @Put, @Delete, @Patch ; si aucune annotation n'est trouvée, get automatique
+        return HttpVerb.of(method).lowerCaseName();
+    }
 
-        // Si aucune annotation n'est trouvée, get automatique    
-        return "get";
+    // Query string ou corps application/x-www-form-urlencoded : un nom répété accumule ses valeurs, comme
+    // getParameterValues(). IllegalArgumentException si un %xx est invalide
+    public static void parseQueryString(String queryString, Map<String, String[]> parameters) {
+        parseQueryString(queryString, StandardCharsets.UTF_8, parameters);
+    }
+
+    public static void parseQueryString(String queryString, Charset charset, Map<String, String[]> parameters) {
+        if (queryString == null || queryString.isEmpty()) return;
+        for (String pair : queryString.split("&")) {
+            if (pair.isEmpty()) continue;
+            int equalsIndex = pair.indexOf('=');
+            String name = URLDecoder.decode(equalsIndex >= 0 ? pair.substring(0, equalsIndex) : pair, charset);
+            String value = equalsIndex >= 0 ? URLDecoder.decode(pair.substring(equalsIndex + 1), charset) : "";
+            parameters.merge(name, new String[] { value }, (existing, added) -> {
+                String[] merged = new String[existing.length + added.length];
+                System.arraycopy(existing, 0, merged, 0, existing.length);
+                System.arraycopy(added, 0, merged, existing.length, added.length);
+                return merged;
+            });
+        }
+    }
+
+    public static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
     }
 
     public static HashMap<String, String> getFormParameters(HttpServletRequest request) {
@@ -476,12 +767,14 @@ public class Utils {
                 // Vérifier le verbe HTTP
                 String verb = setVerbString(method);
                 
-                // Créer le mapping à ajouter
-                Mapping mapping = new Mapping(controllerClass.getName(), new VerbAction(verb, method.getName()));
-    
-                // Vérifier si l'URL existe déjà dans le methodList avec la même action (GET/POST)
+                // Vérifier si l'URL existe déjà dans le methodList avec la même action (GET/POST...)
                 if (!isMappingDuplicate(methodList, url, verb)) 
-                {    methodList.put(url, mapping);    } 
+                {
+                    // Les autres verbes de la même URL sont conservés
+                    Mapping existing = methodList.get(url);
+                    if (existing != null) existing.addVerbMethod(new VerbAction(verb, method.getName()));
+                    else methodList.put(url, new Mapping(controllerClass.getName(), new VerbAction(verb, method.getName())));
+                } 
 
                 else 
                 {    System.out.println("Duplicate method found for URL: " + url + " with HTTP verb: " + verb);     }
@@ -490,18 +783,11 @@ public class Utils {
     }
     
     // Vérifier si l'URL et l'action (GET/POST) existent déjà dans le methodList
-    public static boolean isMappingDuplicate(HashMap<String, Mapping> methodList, String url, String verb) {
+    public static boolean isMappingDuplicate(Map<String, Mapping> methodList, String url, String verb) {
         Mapping existingMapping = methodList.get(url);
-        if (existingMapping != null) {
-            // Parcourir tous les VerbActions dans le mapping existant
-            for (VerbAction verbAction : existingMapping.getVerbMethodes()) {
-                // Vérifier si le verbe existe déjà
-                if (verbAction.getVerbe().equalsIgnoreCase(verb)) {
-                    return true; // Duplication trouvée
-                }
-            }
-        }
-        return false;
+        HttpVerb httpVerb = HttpVerb.of(verb);
+        // Vérifier si le verbe existe déjà
+        return existingMapping != null && httpVerb != null && existingMapping.getVerbAction(httpVerb) != null;
     }
     
 
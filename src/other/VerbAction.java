@@ -5,6 +5,7 @@ import java.util.Objects;
 public class VerbAction {
     private String verbe;  // Ex: GET, POST
     private String methode;  // Le nom de la méthode associée
+    private Handler handler;  // Route résolue au démarrage (hors equals/hashCode)
 
     // Constructeur par défaut
     public VerbAction() {}
@@ -33,6 +34,14 @@ public class VerbAction {
         this.verbe = verbe;
     }
 
+    public Handler getHandler() {
+        return handler;
+    }
+
+    public void setHandler(Handler handler) {
+        this.handler = handler;
+    }
+
     // Surcharge de la méthode equals() pour comparer les attributs verbe et methode
     @Override
     public boolean equals(Object o) {
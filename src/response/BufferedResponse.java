@@ -0,0 +1,338 @@
+package response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// Réponse collectée en octets dans des tampons du pool :
+// - getWriter() et getOutputStream() peuvent être utilisés tous les deux, dans l'ordre d'écriture
+// - à la fin, un corps court part en un seul bloc avec son Content-Length (pas de chunked)
+// - au-delà de la limite, le contenu déjà collecté est envoyé et la suite passe directement
+// - un en-tête calculé en fin de traitement (Server-Timing) est posé par beforeCommit(), juste avant le premier octet
+public class BufferedResponse extends HttpServletResponseWrapper {
+    private final ResponseBufferPool pool;
+    private final List<ByteBuffer> buffers = new ArrayList<>(4);
+    private int limit;
+    private long size;
+    private boolean streaming;
+    private boolean finished;
+    private boolean contentLengthSet;
+    private ServletOutputStream target;
+    private PrintWriter writer;
+    private Runnable beforeCommit;
+    private final Output output = new Output();
+
+    BufferedResponse(HttpServletResponse response, ResponseBufferPool pool, int limit) {
+        super(response);
+        this.pool = pool;
+        this.limit = limit;
+    }
+
+    // BufferedResponse sous d'éventuels wrappers (élément de batch...), null si la réponse n'est pas collectée
+    public static BufferedResponse unwrap(ServletResponse response) {
+        while (response instanceof ServletResponseWrapper) {
+            if (response instanceof BufferedResponse) return (BufferedResponse) response;
+            response = ((ServletResponseWrapper) response).getResponse();
+        }
+        return null;
+    }
+
+    // Exécuté une fois, juste avant que les en-têtes partent au conteneur (fin, passage en flux direct, forward terminé,
+    // sendError / sendRedirect) : le dernier moment où un en-tête peut encore être ajouté
+    public void beforeCommit(Runnable hook) {
+        this.beforeCommit = hook;
+    }
+
+    // Fragment déjà encodé (UTF-8) : aucun encodage caractères -> octets à la requête
+    public void writeBytes(byte[] bytes) throws IOException {
+        flushWriter();
+        append(bytes, 0, bytes.length);
+    }
+
+    // Accès direct au flux du conteneur pour un gros corps (fichier) : ce qui a été collecté est abandonné
+    public ServletOutputStream unbuffered() throws IOException {
+        if (!streaming) {
+            if (writer != null) writer.flush();
+            discard();
+            streaming = true;
+            runBeforeCommit();
+            target = super.getOutputStream();
+        }
+        return target;
+    }
+
+    public long getBufferedSize() {
+        return size;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return output;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            writer = new PrintWriter(new OutputStreamWriter(new WriterSink(), charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        contentLengthSet = true;
+        super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        contentLengthSet = true;
+        super.setContentLengthLong(len);
+    }
+
+    @Override
+    public int getBufferSize() {
+        return limit;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        if (this.size > 0 || streaming) throw new IllegalStateException("Content has already been written");
+        this.limit = Math.max(limit, size);
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return finished || streaming || super.isCommitted();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (finished) return;
+        flushWriter();
+        startStreaming();
+        target.flush();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (streaming || finished) throw new IllegalStateException("Response already committed");
+        // Nouveau writer au prochain getWriter() : une JSP appelée par forward impose son propre charset
+        if (writer != null) writer.flush();
+        writer = null;
+        discard();
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        contentLengthSet = false;
+        super.reset();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        abandon();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        abandon();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        abandon();
+        super.sendRedirect(location);
+    }
+
+    // Envoie le contenu collecté ; appelé par le FrontController, ou à la fermeture du writer/flux (fin d'un forward)
+    public void finish() throws IOException {
+        finish(true);
+    }
+
+    private void finish(boolean flushWriter) throws IOException {
+        if (finished) return;
+        if (flushWriter) flushWriter();
+        finished = true;
+
+        if (streaming) {
+            target.flush();
+            return;
+        }
+
+        runBeforeCommit();
+        try {
+            if (!contentLengthSet && !super.isCommitted()) super.setContentLengthLong(size);
+            if (size > 0) writeBuffers(super.getOutputStream());
+        } catch (IllegalStateException e) {
+            // getWriter() a déjà été appelé sur la réponse du conteneur
+            ByteArrayOutputStream content = new ByteArrayOutputStream((int) size);
+            writeBuffers(content);
+            PrintWriter containerWriter = super.getWriter();
+            containerWriter.write(content.toString(charset()));
+            containerWriter.flush();
+        } finally {
+            discard();
+        }
+    }
+
+    private void append(byte[] bytes, int offset, int length) throws IOException {
+        if (finished) return;  // comme une réponse fermée : ce qui suit est ignoré
+        if (streaming) {
+            target.write(bytes, offset, length);
+            return;
+        }
+        if (size + length > limit) {
+            startStreaming();
+            target.write(bytes, offset, length);
+            return;
+        }
+
+        size += length;
+        while (length > 0) {
+            ByteBuffer current = buffers.isEmpty() ? null : buffers.get(buffers.size() - 1);
+            if (current == null || !current.hasRemaining()) {
+                current = pool.acquire();
+                buffers.add(current);
+            }
+            int chunk = Math.min(length, current.remaining());
+            current.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    private void startStreaming() throws IOException {
+        if (streaming) return;
+        streaming = true;
+        runBeforeCommit();
+        target = super.getOutputStream();
+        try {
+            writeBuffers(target);
+        } finally {
+            discard();
+        }
+    }
+
+    private void writeBuffers(OutputStream out) throws IOException {
+        for (ByteBuffer buffer : buffers) {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        }
+    }
+
+    private void discard() {
+        for (ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        buffers.clear();
+        size = 0;
+    }
+
+    // sendError / sendRedirect : le conteneur écrit lui-même la réponse
+    private void abandon() {
+        if (writer != null) writer.flush();
+        discard();
+        finished = true;
+        runBeforeCommit();
+    }
+
+    private void runBeforeCommit() {
+        Runnable hook = beforeCommit;
+        beforeCommit = null;
+        if (hook != null && !super.isCommitted()) hook.run();
+    }
+
+    private void flushWriter() {
+        if (writer != null) writer.flush();
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+    }
+
+    // Flux exposé à l'application : vide d'abord le writer pour garder l'ordre d'écriture
+    private class Output extends ServletOutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            flushWriter();
+            append(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushWriter();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            return !streaming || target.isReady();
+        }
+
+        // Collecte en mémoire : toujours prête, onWritePossible tout de suite. Une fois passée en flux direct
+        // (limite dépassée), l'écouteur est confié au flux du conteneur s'il n'est plus prêt
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (streaming) {
+                target.setWriteListener(writeListener);
+                return;
+            }
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException | RuntimeException e) {
+                writeListener.onError(e);
+                return;
+            }
+            if (streaming && !target.isReady()) target.setWriteListener(writeListener);
+        }
+    }
+
+    // Destination de l'encodeur du writer
+    private class WriterSink extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            append(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // writer.close() en fin de forward : l'encodeur vient de se vider
+            finish(false);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package response;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonWriter;
+
+// Projection des réponses @RestApi : ?fields=id,client.nom,lignes.total
+// L'arbre de sélection est compilé une fois par valeur du paramètre, puis, pour chaque nœud, la liste des champs
+// retenus est calculée une fois par classe. L'écriture se fait directement dans le JsonWriter : les champs non
+// sélectionnés ne sont ni lus ni écrits. Une feuille (ou un type du JDK) est écrite entièrement par Gson.
+// Listes et tableaux appliquent la sélection à chaque élément ; une Map ne garde que les clés sélectionnées ;
+// un nom inconnu est ignoré. Une classe que Gson n'écrit pas champ par champ (@JsonAdapter, TypeAdapter enregistré,
+// champ sélectionné portant @JsonAdapter) est écrite entièrement par Gson, sans projection, pour garder son format
+public final class FieldSelection {
+    public static final String PARAMETER = "fields";
+
+    private static final int MAX_CACHED = 256;
+    private static final String REFLECTIVE_ADAPTER = "com.google.gson.internal.bind.ReflectiveTypeAdapterFactory";
+    // LRU : les valeurs fréquentes restent même quand des clients envoient des valeurs arbitraires
+    private static final Map<String, FieldSelection> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FieldSelection> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+    // Marqueur : classe non lisible par réflexion (module fermé) ou à format propre, écrite entièrement par Gson
+    private static final Property[] NOT_REFLECTIVE = new Property[0];
+
+    // null : tout le sous-arbre
+    private final Map<String, FieldSelection> children;
+    // Plans par classe (et par Gson), rattachés à la classe : une classe rechargée à chaud est libérée avec son chargeur
+    private final ClassValue<Map<Gson, Property[]>> plans = new ClassValue<Map<Gson, Property[]>>() {
+        @Override
+        protected Map<Gson, Property[]> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(2);
+        }
+    };
+
+    private FieldSelection(Map<String, FieldSelection> children) {
+        this.children = children;
+    }
+
+    private static final class Property {
+        final Field field;
+        final String name;
+        final FieldSelection selection;
+
+        Property(Field field, String name, FieldSelection selection) {
+            this.field = field;
+            this.name = name;
+            this.selection = selection;
+        }
+    }
+
+    // null quand le paramètre est absent ou vide (réponse complète)
+    public static FieldSelection of(String fields) {
+        if (fields == null || fields.trim().isEmpty()) return null;
+        synchronized (CACHE) {
+            FieldSelection selection = CACHE.get(fields);
+            if (selection != null) return selection;
+        }
+        FieldSelection selection = parse(fields);
+        synchronized (CACHE) {
+            FieldSelection existing = CACHE.putIfAbsent(fields, selection);
+            return existing != null ? existing : selection;
+        }
+    }
+
+    private static FieldSelection parse(String fields) {
+        FieldSelection root = new FieldSelection(new LinkedHashMap<>());
+        for (String path : fields.split(",")) {
+            FieldSelection node = root;
+            String[] names = path.trim().split("\\.");
+            for (int i = 0; i < names.length && node.children != null; i++) {
+                String name = names[i].trim();
+                if (name.isEmpty()) break;
+                FieldSelection child = node.children.get(name);
+                // "a" l'emporte sur "a.b" : tout le sous-arbre
+                if (i == names.length - 1) {
+                    child = new FieldSelection(null);
+                    node.children.put(name, child);
+                } else if (child == null) {
+                    child = new FieldSelection(new LinkedHashMap<>());
+                    node.children.put(name, child);
+                }
+                node = child;
+            }
+        }
+        return root;
+    }
+
+    public void write(Object value, JsonWriter writer, Gson gson) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (children == null) {
+            gson.toJson(value, value.getClass(), writer);
+            return;
+        }
+
+        Class<?> type = value.getClass();
+        if (value instanceof Collection || value instanceof JsonArray) {
+            writer.beginArray();
+            for (Object element : (Iterable<?>) value) write(element, writer, gson);
+            writer.endArray();
+        } else if (type.isArray() && !type.getComponentType().isPrimitive()) {
+            writer.beginArray();
+            for (int i = 0, length = Array.getLength(value); i < length; i++) write(Array.get(value, i), writer, gson);
+            writer.endArray();
+        } else if (value instanceof Map) {
+            writer.beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                String name = String.valueOf(entry.getKey());
+                FieldSelection child = children.get(name);
+                if (child == null) continue;
+                writer.name(name);
+                child.write(entry.getValue(), writer, gson);
+            }
+            writer.endObject();
+        } else if (value instanceof JsonObject) {
+            writer.beginObject();
+            for (Map.Entry<String, JsonElement> member : ((JsonObject) value).entrySet()) {
+                FieldSelection child = children.get(member.getKey());
+                if (child == null) continue;
+                writer.name(member.getKey());
+                child.write(member.getValue(), writer, gson);
+            }
+            writer.endObject();
+        } else if (isLeaf(type)) {
+            gson.toJson(value, type, writer);
+        } else {
+            Property[] properties = plans.get(type).computeIfAbsent(gson, key -> compile(type, key));
+            if (properties == NOT_REFLECTIVE) {
+                gson.toJson(value, type, writer);
+                return;
+            }
+            writer.beginObject();
+            try {
+                for (Property property : properties) {
+                    // Champ null : le JsonWriter retire aussi le nom (sauf serializeNulls), comme Gson
+                    writer.name(property.name);
+                    property.selection.write(property.field.get(value), writer, gson);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IOException("Unable to read field of " + type.getName(), e);
+            }
+            writer.endObject();
+        }
+    }
+
+    // Champs sélectionnés de la classe, dans l'ordre de Gson (classe puis super-classes), mêmes noms et exclusions
+    private Property[] compile(Class<?> type, Gson gson) {
+        // @JsonAdapter sur la classe ou TypeAdapter enregistré dans le GsonBuilder : Gson ne passe pas par les champs
+        if (!gson.getAdapter(type).getClass().getName().startsWith(REFLECTIVE_ADAPTER)) return NOT_REFLECTIVE;
+        List<Property> properties = new ArrayList<>();
+        List<String> seen = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                String name = serializedName != null ? serializedName.value() : field.getName();
+                if (seen.contains(name)) continue;
+                seen.add(name);
+
+                FieldSelection child = children.get(name);
+                if (child == null) continue;
+                if (field.isAnnotationPresent(JsonAdapter.class) || !field.trySetAccessible()) return NOT_REFLECTIVE;
+                properties.add(new Property(field, name, child));
+            }
+        }
+        return properties.toArray(new Property[0]);
+    }
+
+    private static boolean isLeaf(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isEnum() || Number.class.isAssignableFrom(type)) return true;
+        if (type == String.class || type == Boolean.class || type == Character.class) return true;
+        if (JsonElement.class.isAssignableFrom(type) || Enum.class.isAssignableFrom(type)) return true;
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.");
+    }
+}
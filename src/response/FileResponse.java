@@ -0,0 +1,238 @@
+package response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import jakarta.servlet.ServletRequestWrapper;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.FileUpload;
+
+// Valeur de retour d'un Controller pour envoyer un fichier sans le charger en mémoire :
+// sendfile du conteneur quand il est disponible (sans copie dans la JVM), sinon copie par FileChannel.transferTo
+// vers le flux de la réponse (par morceaux, à travers un tampon de la JVM).
+// Gère Range (une seule plage), ETag / Last-Modified et les requêtes conditionnelles (304)
+public class FileResponse {
+    // Attributs de requête du sendfile de Tomcat (NIO / NIO2 / APR)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path path;
+    private String contentType;
+    private String downloadName;
+    private String typeName;
+
+    public FileResponse(Path path) {
+        this.path = path;
+    }
+
+    public static FileResponse of(Path path) {
+        return new FileResponse(path);
+    }
+
+    public static FileResponse of(String path) {
+        return new FileResponse(Paths.get(path));
+    }
+
+    // Fichier reçu (UploadStore) ou enregistré par FileUpload.saveFile() ; le type vient du nom d'origine
+    public static FileResponse of(FileUpload upload) {
+        FileResponse response = new FileResponse(upload.getPath());
+        response.typeName = upload.getFileName();
+        return response;
+    }
+
+    public FileResponse contentType(String contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    // Content-Disposition: attachment (téléchargement) avec ce nom
+    public FileResponse download(String fileName) {
+        this.downloadName = fileName;
+        return this;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void send(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!response.isCommitted()) response.resetBuffer();  // fragments de debug déjà écrits
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;  // précision HTTP : la seconde
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setContentLength(0);
+            return;
+        }
+
+        long start = 0;
+        long end = length;  // exclusif
+        String range = request.getHeader("Range");
+        if (range != null && rangeApplies(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+
+        response.setContentType(resolveContentType(request));
+        if (downloadName != null) {
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + downloadName.replace("\"", "")
+                + "\"; filename*=UTF-8''" + URLEncoder.encode(downloadName, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        response.setContentLengthLong(end - start);
+
+        if ("HEAD".equals(request.getMethod()) || end == start) return;
+
+        // Le conteneur envoie lui-même le fichier (sendfile), sans passer par la JVM
+        if (canSendFile(request, response)) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        OutputStream out = response instanceof BufferedResponse
+            ? ((BufferedResponse) response).unbuffered() : response.getOutputStream();
+        transfer(start, end, out);
+    }
+
+    // Sendfile seulement sur la requête et la réponse du conteneur lui-même : derrière un wrapper (élément de
+    // /__batch, route appelée après un upload par morceaux...), les attributs posés peuvent rester dans le wrapper
+    // et la réponse partirait avec son Content-Length mais sans corps
+    private static boolean canSendFile(HttpServletRequest request, HttpServletResponse response) {
+        return response instanceof BufferedResponse
+            && !(request instanceof ServletRequestWrapper)
+            && !(((BufferedResponse) response).getResponse() instanceof ServletResponseWrapper)
+            && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+    }
+
+    // Vers un flux de servlet, transferTo copie à travers un tampon : pas de zéro-copie ici
+    private void transfer(long start, long end, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, target);
+                // 0 octet avant la fin annoncée : le fichier a été tronqué depuis l'envoi du Content-Length
+                if (sent <= 0) throw new IOException("File truncated during transfer: " + path + " (" + position + "/" + end + " bytes)");
+                position += sent;
+            }
+        }
+        out.flush();
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return ifNoneMatch.trim().equals("*") || matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, "If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    // If-Range : la plage n'est servie que si le fichier n'a pas changé, sinon le fichier entier
+    private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) return true;
+        if (ifRange.trim().startsWith("\"") || ifRange.trim().startsWith("W/")) return ifRange.trim().equals(etag);
+        long date = dateHeader(request, "If-Range");
+        return date >= 0 && lastModified <= date;
+    }
+
+    private static boolean matchesEtag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) value = value.substring(2);
+            if (value.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    // Une seule plage "bytes=a-b", "bytes=a-" ou "bytes=-n" ; tableau vide = ignorer (plages multiples),
+    // null = plage impossible (416)
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=")) return new long[0];
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.contains(",")) return new long[0];
+
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) return null;
+                start = Math.max(0, length - suffix);
+                end = length;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length : Math.min(length, Long.parseLong(last) + 1);
+            }
+            if (start >= length || start >= end) return null;
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String resolveContentType(HttpServletRequest request) {
+        if (contentType != null) return contentType;
+        String name = typeName != null ? typeName : path.getFileName().toString();
+        String type = request.getServletContext().getMimeType(name);
+        return type != null ? type : "application/octet-stream";
+    }
+}
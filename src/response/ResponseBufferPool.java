@@ -0,0 +1,49 @@
+package response;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Utils;
+
+// Tampons réutilisés d'une réponse à l'autre : une réponse courte ne coûte aucune allocation
+public class ResponseBufferPool {
+    private final int bufferSize;
+    private final int limit;
+    private final ArrayBlockingQueue<ByteBuffer> free;
+
+    public ResponseBufferPool(int bufferSize, int limit, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.limit = limit;
+        this.free = new ArrayBlockingQueue<>(Math.max(1, maxPooled));
+    }
+
+    // Paramètres web.xml :
+    // response_buffer_size (8192 octets par tampon), response_buffer_limit (65536 : au-delà la réponse est envoyée
+    // au fil de l'eau, sans Content-Length), response_buffer_pool (256 tampons conservés au maximum)
+    public static ResponseBufferPool fromConfig(ServletConfig config) throws ServletException {
+        int bufferSize = (int) Utils.getInitParameter(config, "response_buffer_size", 8192L);
+        int limit = (int) Utils.getInitParameter(config, "response_buffer_limit", 65536L);
+        int maxPooled = (int) Utils.getInitParameter(config, "response_buffer_pool", 256L);
+        if (bufferSize <= 0) throw new ServletException("response_buffer_size must be positive: " + bufferSize);
+        return new ResponseBufferPool(bufferSize, limit, maxPooled);
+    }
+
+    // UTF-8 par défaut (une vue ou une route peut encore le changer avant d'écrire)
+    public BufferedResponse wrap(HttpServletResponse response) {
+        response.setCharacterEncoding("UTF-8");
+        return new BufferedResponse(response, this, limit);
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        return buffer != null ? buffer : ByteBuffer.allocate(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        buffer.clear();
+        free.offer(buffer);
+    }
+}
@@ -0,0 +1,43 @@
+package response;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+// Morceau de HTML fixe, encodé une seule fois en UTF-8
+public final class StaticFragment {
+    private final String text;
+    private final byte[] bytes;
+    // ASCII pur : mêmes octets en UTF-8 et en ISO-8859-1 (encodage par défaut du conteneur)
+    private final boolean ascii;
+
+    public StaticFragment(String text) {
+        this.text = text;
+        this.bytes = text.getBytes(StandardCharsets.UTF_8);
+        this.ascii = bytes.length == text.length();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    // Octets pré-encodés sur une BufferedResponse, texte sinon (réponse d'élément de batch...)
+    public void writeTo(PrintWriter out, HttpServletResponse response) throws IOException {
+        if (response instanceof BufferedResponse && (ascii || isUtf8(response))) {
+            ((BufferedResponse) response).writeBytes(bytes);
+        } else {
+            out.print(text);
+        }
+    }
+
+    private static boolean isUtf8(HttpServletResponse response) {
+        String encoding = response.getCharacterEncoding();
+        return encoding != null && encoding.equalsIgnoreCase("UTF-8");
+    }
+}
@@ -1,9 +1,18 @@
 package servlet;
 
 import java.io.*;
-import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
@@ -12,90 +21,305 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.HttpSession;
+import batch.BatchProcessor;
+import error.ErrorMapper;
 import controller.*;
 import other.*;
-import exception.AuthenticationException;
+import exception.UploadQuotaException;
 import exception.ValidationException;
 import annotation.ValidateForm;
-import auth.*;
+import intake.BodyIntake;
+import interceptor.AdmissionController;
+import interceptor.HandlerInterceptor;
+import interceptor.InterceptorRegistry;
+import response.BufferedResponse;
+import response.ResponseBufferPool;
+import session.SessionContext;
+import session.SessionManager;
+import trace.DispatchEvents;
+import trace.PhaseTimer;
+import upload.ChunkedUploads;
+import upload.UploadStore;
+import upload.UploadStores;
+import view.ViewRendererRegistry;
+import snapshot.CdsTraining;
+import snapshot.CheckpointListener;
+import snapshot.Checkpoints;
+import snapshot.RouteSnapshot;
+import warmup.WarmUpRunner;
+import websocket.Broadcaster;
+import websocket.WebSocketEndpoints;
 
+// Les limites de @MultipartConfig ne peuvent pas venir de web.xml : la taille est vérifiée par processRoute()
+// (upload_max_request_size) avant que le conteneur n'écrive les Parts sur le disque
 @MultipartConfig
 public class FrontController extends HttpServlet {
 
     private String controllerPackage;
     private ControllerScanner scanner;
-    private List<Class<?>> controllers;
-    private HashMap<String, Mapping> methodList;
+    // Table des routes immuable, remplacée d'un bloc par le registre (rechargement à chaud, enregistrement à l'exécution)
+    private RouteRegistry routeRegistry;
+    private ControllerReloader reloader;
+    private BatchProcessor batchProcessor;
+    private ChunkedUploads chunkedUploads;
+    // null : HttpSession du conteneur
+    private SessionManager sessionManager;
+    // null : lecture bloquante habituelle des corps de requête
+    private BodyIntake bodyIntake;
+    private Broadcaster broadcaster;
+    // null : pas de mise en température, /__ready répond 200 dès la fin de init()
+    private WarmUpRunner warmUp;
+    private ResponseBufferPool responseBuffers;
+    private ErrorMapper errorMapper;
+    private long defaultTimeoutMillis;
+    // 0 : requêtes multipart sans limite de taille
+    private long multipartMaxBytes;
+    // Valeur de X-Server-Timing qui active Server-Timing sur toutes les routes (null : seulement @ServerTiming)
+    private byte[] serverTimingToken;
+    private ExecutorService invocationExecutor;
 
     @Override
     public void init(ServletConfig config) throws ServletException {
         super.init(config);
         controllerPackage = Utils.initializeControllerPackage(config);
-        scanAndInitializeControllers();
+        defaultTimeoutMillis = Utils.getInitParameter(config, "default_timeout_ms", 0L);
+        String timingToken = config.getInitParameter("server_timing_token");
+        if (timingToken != null && !timingToken.trim().isEmpty()) {
+            serverTimingToken = timingToken.trim().getBytes(StandardCharsets.UTF_8);
+        }
+        InterceptorRegistry interceptorRegistry = initInterceptors(config);
+        scanAndInitializeControllers(interceptorRegistry, RouteSnapshot.fromConfig(config));
+        getServletContext().setAttribute(RouteRegistry.CONTEXT_ATTRIBUTE, routeRegistry);
+        initInvocationExecutor(config);
+        responseBuffers = ResponseBufferPool.fromConfig(config);
+        UploadStore uploadStore = UploadStores.fromConfig(config);
+        multipartMaxBytes = UploadStores.maxRequestSize(config);
+        Utils.setUploadStore(uploadStore);
+        chunkedUploads = ChunkedUploads.fromConfig(config, uploadStore, this::dispatch, interceptorRegistry);
+        sessionManager = SessionManager.fromConfig(config);
+        if (sessionManager != null) getServletContext().setAttribute(SessionManager.CONTEXT_ATTRIBUTE, sessionManager);
+        bodyIntake = BodyIntake.fromConfig(config, this::handle);
+        initHotReload(config);
+        initViewRenderers(config);
+        errorMapper = ErrorMapper.fromConfig(config, routeRegistry.getControllers());
+        Utils.setErrorMapper(errorMapper);
+        batchProcessor = BatchProcessor.fromConfig(config, this::dispatch, errorMapper);
+        initWebSockets(config);
+        // En dernier : tout le reste doit être prêt pour les requêtes synthétiques
+        warmUp = WarmUpRunner.fromConfig(config, routeRegistry, this::dispatch);
+        // Exécution d'entraînement AppCDS : archive écrite une fois les classes de la mise en température chargées
+        CdsTraining cdsTraining = CdsTraining.fromConfig(config);
+        Runnable onReady = cdsTraining != null ? cdsTraining::dump : () -> {};
+        if (warmUp != null) warmUp.start(onReady);
+        else onReady.run();
+        Checkpoints.register(new CheckpointHandles());
     }
 
     @Override
-    protected void doGet(HttpServletRequest request, HttpServletResponse response)
-            throws IOException, ServletException {
+    public void destroy() {
+        if (batchProcessor != null) batchProcessor.shutdown();
+        if (invocationExecutor != null) invocationExecutor.shutdownNow();
+        if (reloader != null) reloader.stop();
+        if (broadcaster != null) broadcaster.closeAll();
+        if (sessionManager != null) sessionManager.shutdown();
+        super.destroy();
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        // Gros corps reçu sans bloquer de thread, la suite reprend dans handle() une fois le corps complet
+        if (bodyIntake != null && !ChunkedUploads.isChunkedUploadRequest(Utils.getRelativeURI(request))
+                && bodyIntake.accepts(request)) {
+            bodyIntake.start(request, response);
+            return;
+        }
+        handle(request, response);
+    }
+
+    private void handle(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (sessionManager == null) {
+            route(request, response);
+            return;
+        }
+
+        // Les attributs de session modifiés partent vers le SessionStore en fin de requête (écriture différée)
+        SessionContext session = sessionManager.begin(request, response);
         try {
-            processRequest(request, response);
-        } catch (NoSuchMethodException | ClassNotFoundException | IOException | ServletException e) {
-            e.printStackTrace();
+            route(request, response);
+        } finally {
+            sessionManager.end(session);
+        }
+    }
+
+    // Même chaîne d'intercepteurs qu'une route (classe de garde chunked_upload_guard) avant le traitement de l'upload
+    private void processChunkedUpload(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        Handler guard = chunkedUploads.getGuard();
+        HandlerInterceptor[] interceptors = guard.getInterceptors();
+        int applied = 0;
+        Exception failure = null;
+        try {
+            while (applied < interceptors.length) {
+                if (!interceptors[applied].preHandle(request, response, guard)) return;
+                applied++;
+            }
+            chunkedUploads.process(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            // quota dépassé au moment du stockage -> 413 comme un upload multipart ; authentification refusée...
+            if (response.isCommitted()) throw e;
+            errorMapper.handle(e, request, response);
+        } finally {
+            for (int i = applied - 1; i >= 0; i--) {
+                try {
+                    interceptors[i].afterCompletion(request, response, guard, failure);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // HttpServlet ne connaît pas PATCH et son OPTIONS ignore les routes : ces deux verbes passent directement par les routes.
+    // HEAD reste géré par HttpServlet (doGet sans corps) et se rabat sur la route GET
+    private void route(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        // Sonde de disponibilité : 503 tant que la mise en température n'est pas terminée
+        if (WarmUpRunner.isReadinessRequest(Utils.getRelativeURI(request))) {
+            response.setStatus(warmUp == null || warmUp.isReady()
+                ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        // Upload par morceaux (si activé) : /__upload gère lui-même ses verbes
+        if (chunkedUploads != null && ChunkedUploads.isChunkedUploadRequest(Utils.getRelativeURI(request))) {
+            processChunkedUpload(request, response);
+            return;
+        }
+
+        String method = request.getMethod();
+        if ("PATCH".equals(method) || "OPTIONS".equals(method)) {
+            dispatch(request, response);
+            return;
         }
+        super.service(request, response);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        dispatch(request, response);
+    }
+
+    @Override
+    protected void doPut(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        dispatch(request, response);
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        dispatch(request, response);
     }
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        // Plusieurs appels de contrôleurs en un seul aller-retour
+        if (BatchProcessor.isBatchRequest(Utils.getRelativeURI(request))) {
+            batchProcessor.process(request, response);
+            return;
+        }
+
+        dispatch(request, response);
+    }
+
+    // Réponse collectée dans des tampons du pool : Content-Length exact pour les petits corps,
+    // et une erreur survenue en cours de route remplace proprement ce qui a déjà été écrit
+    private void dispatch(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        BufferedResponse bufferedResponse = responseBuffers.wrap(response);
         try {
-            processRequest(request, response);
-        } catch (NoSuchMethodException | ClassNotFoundException | IOException | ServletException e) {
-            e.printStackTrace();
+            processRequest(request, bufferedResponse);
+        } catch (Exception e) {
+            errorMapper.handle(e, request, bufferedResponse);
+        } finally {
+            bufferedResponse.finish();
         }
     }
 
     protected void processRequest(HttpServletRequest request, HttpServletResponse response)
     throws IOException, ServletException, NoSuchMethodException, ClassNotFoundException 
     {
+        DispatchEvents.Dispatch event = new DispatchEvents.Dispatch();
+        event.begin();
+        String outcome = DispatchEvents.FAILED;
+        try {
+            processRoute(request, response);
+            outcome = DispatchEvents.OK;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.status = response.getStatus();
+                event.requestBytes = request.getContentLengthLong();
+                event.responseBytes = response instanceof BufferedResponse ? ((BufferedResponse) response).getBufferedSize() : -1;
+                DispatchEvents.commit(event, request, outcome);
+            }
+        }
+    }
+
+    private void processRoute(HttpServletRequest request, HttpServletResponse response)
+    throws IOException, ServletException, NoSuchMethodException, ClassNotFoundException 
+    {
+        // Pas de close() en fin de requête : après un forward la réponse est déjà terminée, dispatch() s'occupe du reste
         PrintWriter out = response.getWriter();
 
         try {
-            HashMap<String, String> formData = Utils.getFormParameters(request);
+            // Avant toute lecture des paramètres : getParameter()/getPart() font écrire les Parts sur le disque
+            if (multipartMaxBytes > 0 && Utils.isMultipart(request)) {
+                long length = request.getContentLengthLong();
+                if (length < 0) {
+                    response.sendError(HttpServletResponse.SC_LENGTH_REQUIRED);
+                    return;
+                }
+                if (length > multipartMaxBytes) {
+                    throw new UploadQuotaException("Multipart request of " + length + " bytes exceeds the maximum of "
+                        + multipartMaxBytes + " bytes");
+                }
+            }
+
             String relativeURI = Utils.getRelativeURI(request);
             
-            // Récupérer la méthode à exécuter
-            Mapping mapping = methodList.get(relativeURI);
+            // Récupérer la route à exécuter (une seule lecture de la table pour toute la requête)
+            long routingStart = System.nanoTime();
+            DispatchEvents.Routing routing = new DispatchEvents.Routing();
+            routing.begin();
+            RouteTable routes = routeRegistry.snapshot();
+            Mapping mapping = routes.get(relativeURI);
+            routing.end();
+            if (routing.shouldCommit()) {
+                DispatchEvents.commit(routing, request, mapping != null ? DispatchEvents.OK : DispatchEvents.NOT_FOUND);
+            }
             if (mapping != null) {
-                Class<?> controllerClass = Class.forName(mapping.getClassName());
-                Method method = null;
+                // Route correspondant au verbe HTTP, résolue au démarrage (accès direct par HttpVerb)
+                HttpVerb verb = HttpVerb.of(request.getMethod());
+                Handler handler = verb != null ? mapping.getHandler(verb) : null;
                 
-                // Trouver la méthode correspondant au verbe HTTP
-                String httpMethod = request.getMethod();
-                for (VerbAction verbAction : mapping.getVerbMethodes()) {
-                    if (verbAction.getVerbe().equalsIgnoreCase(httpMethod)) {
-                        method = Utils.findMethod(controllerClass, verbAction.getMethode());
-                        break;
-                    }
-                }
-                
-                if (method != null) {
-                    // Vérifier l'authentification avec la classe ET la méthode
-                    try {
-                        AuthenticationInterceptor.validateAuthentication(method, controllerClass, request);
-                    
-                    } catch (AuthenticationException e) {
-                        System.err.println("Message d'erreur dans l'authentification de la methode ou dela classe = " +e.getMessage());
-                        // Stocker l'URL demandée pour redirection après login
-                        request.getSession().setAttribute("requested_url", relativeURI);
-                        response.sendRedirect(request.getContextPath() + "/login-page");
-                        return;
+                if (handler == null && verb == HttpVerb.OPTIONS) {
+                    // OPTIONS automatique : verbes acceptés par l'URL
+                    response.setHeader("Allow", mapping.getAllowHeader());
+                    response.setStatus(HttpServletResponse.SC_OK);
+                    return;
+                } else if (handler != null) {
+                    if (handler.isRestApi()) {
+                        request.setAttribute(ErrorMapper.REST_API_ATTRIBUTE, Boolean.TRUE);
                     }
-                    
-                    // Continuer avec l'exécution normale
-                    Utils.displayDebugInfo(out, relativeURI, methodList);
-                    Utils.displayFormData(out, formData); 
-                    Utils.executeMappingMethod(relativeURI, methodList, out, request, response, formData);
+                    executeHandler(handler, routes, relativeURI, out, request, response, routingStart);
                 } else {
+                    response.setHeader("Allow", mapping.getAllowHeader());
                     response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
                     return;
                 }
@@ -106,22 +330,95 @@ public class FrontController extends HttpServlet {
         } catch (ValidationException ve) {
             ModelView errorView = ve.getModelView();
             Utils.handleModelView(errorView, request, response);
-        } finally {
-            out.close();
         }
     }
 
 
 
+    // Chaîne d'intercepteurs figée au démarrage : une route sans intercepteur ne paie que le test de longueur
+    private void executeHandler(Handler handler, Map<String, Mapping> routes, String relativeURI, PrintWriter out,
+                                HttpServletRequest request, HttpServletResponse response, long routingStart)
+        throws IOException, ServletException, NoSuchMethodException, ClassNotFoundException, ValidationException
+    {
+        // Server-Timing : mesure démarrée avant la recherche de la route, en-tête posé juste avant le premier octet
+        // envoyé (fin normale, forward JSP ou FileResponse qui écrivent eux-mêmes la réponse)
+        PhaseTimer timer = null;
+        BufferedResponse bufferedResponse = null;
+        if (handler.isServerTiming() || isServerTimingRequested(request)) {
+            timer = PhaseTimer.start(request, routingStart);
+            timer.record(PhaseTimer.Phase.ROUTING, routingStart);
+            bufferedResponse = BufferedResponse.unwrap(response);
+            if (bufferedResponse != null) {
+                PhaseTimer commitTimer = timer;
+                bufferedResponse.beforeCommit(() -> response.setHeader("Server-Timing", commitTimer.toHeader()));
+            }
+        }
+
+        // Échéance : @Timeout de la route, défaut global, ou budget reçu dans X-Request-Deadline
+        Deadline.start(request, handler.getTimeoutMillis());
+
+        HandlerInterceptor[] interceptors = handler.getInterceptors();
+        int applied = 0;
+        Exception failure = null;
+
+        try {
+            while (applied < interceptors.length) {
+                if (!interceptors[applied].preHandle(request, response, handler)) return;
+                applied++;
+            }
+
+            // Continuer avec l'exécution normale ; le corps du formulaire n'est lu qu'après les intercepteurs
+            // (un refus, par exemple LoadSheddingInterceptor, ne coûte pas la lecture du corps)
+            HashMap<String, String> formData = Utils.getFormParameters(request);
+            Utils.displayDebugInfo(out, response, relativeURI, routes);
+            Utils.displayFormData(out, formData); 
+            Utils.executeMappingMethod(relativeURI, routes, out, request, response, formData, handler);
+        } catch (IOException | ServletException | NoSuchMethodException | ClassNotFoundException | ValidationException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            for (int i = applied - 1; i >= 0; i--) {
+                try {
+                    interceptors[i].afterCompletion(request, response, handler, failure);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+            // Réponse non collectée : au mieux, si rien n'est encore parti
+            if (timer != null && bufferedResponse == null && !response.isCommitted()) {
+                response.setHeader("Server-Timing", timer.toHeader());
+            }
+        }
+    }
+
+    // En-tête X-Server-Timing égal au jeton de web.xml (comparaison en temps constant)
+    private boolean isServerTimingRequested(HttpServletRequest request) {
+        if (serverTimingToken == null) return false;
+        String header = request.getHeader("X-Server-Timing");
+        return header != null && MessageDigest.isEqual(serverTimingToken, header.trim().getBytes(StandardCharsets.UTF_8));
+    }
+
     // Section for "init()" Function 
-    private void scanAndInitializeControllers() {
+    private void scanAndInitializeControllers(InterceptorRegistry interceptorRegistry, RouteSnapshot snapshot) {
         try {
 
             this.scanner = new ControllerScanner();
-            this.controllers = scanner.findControllers(controllerPackage);
-            this.methodList = new HashMap<>();
-            Utils.validateUniqueMappingValues(controllers);
-            initMethodList();
+            this.routeRegistry = new RouteRegistry(interceptorRegistry, defaultTimeoutMillis);
+            if (snapshot == null) {
+                routeRegistry.registerControllers(scanner.findControllers(controllerPackage));
+                return;
+            }
+
+            // Classes inchangées depuis l'instantané : routes reprises telles quelles, sans scan du package
+            String fingerprint = RouteSnapshot.fingerprint(controllerPackage, scanner.findPackageDirectories(controllerPackage));
+            if (restoreRoutes(snapshot, fingerprint)) return;
+
+            routeRegistry.registerControllers(scanner.findControllers(controllerPackage));
+            try {
+                snapshot.save(fingerprint, routeRegistry);
+            } catch (IOException e) {
+                System.err.println("Unable to write startup snapshot: " + e.getMessage());
+            }
         
         } catch (Exception e) {
             e.printStackTrace();
@@ -129,15 +426,99 @@ public class FrontController extends HttpServlet {
         }
     }
 
-    private void initMethodList() {
-        if (this.controllers != null) {
-            for (Class<?> controller : this.controllers) {
-                System.out.println("Scanning controller: " + controller.getName());
-                Utils.findMethodsAnnotated(controller, methodList);
-            }
-        } 
-        else 
-        {    System.out.println("No controllers found");    }
+    private boolean restoreRoutes(RouteSnapshot snapshot, String fingerprint) {
+        List<String> controllerNames = new ArrayList<>();
+        List<RouteSnapshot.Route> routes = snapshot.load(fingerprint, controllerNames);
+        if (routes == null) return false;
+
+        try {
+            List<Class<?>> controllers = new ArrayList<>();
+            for (String name : controllerNames) controllers.add(Class.forName(name));
+            routeRegistry.restoreControllers(controllers, routes);
+            System.out.println("Routes restored from startup snapshot: " + routes.size());
+            return true;
+        } catch (Exception e) {
+            // Instantané inutilisable : le registre n'a rien publié, le scan complet reprend
+            System.err.println("Startup snapshot ignored: " + e);
+            return false;
+        }
+    }
+
+    // Point de reprise CRaC : fichiers de sessions et surveillance du rechargement à chaud fermés puis rouverts
+    private class CheckpointHandles implements CheckpointListener {
+        @Override
+        public void beforeCheckpoint() throws Exception {
+            if (reloader != null) reloader.stop();
+            if (sessionManager != null) sessionManager.beforeCheckpoint();
+        }
+
+        @Override
+        public void afterRestore() throws Exception {
+            if (sessionManager != null) sessionManager.afterRestore();
+            if (reloader != null) reloader.start();
+        }
+    }
+
+    // Délestage adaptatif (load_shedding) : compteurs disponibles dans le ServletContext
+    private InterceptorRegistry initInterceptors(ServletConfig config) throws ServletException {
+        InterceptorRegistry interceptorRegistry = new InterceptorRegistry();
+        AdmissionController admissionController = AdmissionController.fromConfig(config);
+        if (admissionController != null) {
+            interceptorRegistry.setAdmissionController(admissionController);
+            getServletContext().setAttribute(AdmissionController.CONTEXT_ATTRIBUTE, admissionController);
+        }
+        return interceptorRegistry;
+    }
+
+    private void initViewRenderers(ServletConfig config) throws ServletException {
+        ViewRendererRegistry viewRenderers = ViewRendererRegistry.fromConfig(config);
+        viewRenderers.checkViews(Utils.findReferencedViews(routeRegistry.getControllers()));
+        Utils.setViewRenderers(viewRenderers);
+    }
+
+    // Points d'entrée @WebSocket, avec le Broadcaster exposé dans le ServletContext et injecté dans les Controllers
+    private void initWebSockets(ServletConfig config) throws ServletException {
+        broadcaster = new Broadcaster();
+        getServletContext().setAttribute(Broadcaster.CONTEXT_ATTRIBUTE, broadcaster);
+        Utils.setBroadcaster(broadcaster);
+        WebSocketEndpoints.register(config, routeRegistry.getControllers(), broadcaster, sessionManager);
+    }
+
+    // Pool borné : si tous les threads sont pris par des Controllers lents, la requête reçoit 503 au lieu d'attendre
+    private void initInvocationExecutor(ServletConfig config) throws ServletException {
+        int threads = (int) Utils.getInitParameter(config, "timeout_threads", 64L);
+        AtomicInteger counter = new AtomicInteger();
+        invocationExecutor = new ThreadPoolExecutor(0, threads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "framework-invoke-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        Utils.setInvocationExecutor(invocationExecutor);
+    }
+
+    // Paramètre web.xml : hot_reload (false par défaut), réservé au développement et à l'exploitation
+    private void initHotReload(ServletConfig config) throws ServletException {
+        if (!Boolean.parseBoolean(config.getInitParameter("hot_reload"))) return;
+
+        try {
+            reloader = new ControllerReloader(controllerPackage, scanner.findPackageDirectories(controllerPackage),
+                                                this::reloadControllers);
+            reloader.start();
+        } catch (IOException e) {
+            throw new ServletException("Unable to start controller hot reload", e);
+        }
+    }
+
+    // Reconstruit uniquement les routes des classes modifiées ; les requêtes en cours terminent avec l'ancienne table
+    private void reloadControllers(Set<String> changedClasses, List<Class<?>> reloadedControllers) {
+        try {
+            routeRegistry.replaceControllers(changedClasses, reloadedControllers);
+        } catch (Exception e) {
+            // La table précédente reste en service
+            System.err.println("Hot reload failed, keeping previous routes: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
     // End of Section 
 }
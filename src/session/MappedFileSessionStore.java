@@ -0,0 +1,380 @@
+package session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Sessions dans un fichier mappé en mémoire, en remplacement local d'un stockage partagé :
+// journal d'enregistrements ajoutés en fin de fichier + index en mémoire (identifiant -> dernier enregistrement).
+// Enregistrement : longueur (int) | type (byte) | dernier accès (long) | identifiant | attributs sérialisés.
+// Le fichier est compacté sur place quand les enregistrements périmés occupent plus de la moitié de la place
+public class MappedFileSessionStore implements SessionStore {
+    private static final byte RECORD_SESSION = 1;
+    private static final byte RECORD_DELETED = 2;
+    private static final int HEADER = 4 + 1 + 8 + 2;
+    private static final int INITIAL_SIZE = 1024 * 1024;
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    private final Path file;
+    private final long timeoutMillis;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int end;
+    private long liveBytes;
+
+    // Position d'un enregistrement dans le fichier
+    private static class Entry {
+        final int offset;
+        final int length;
+        final long lastAccess;
+
+        Entry(int offset, int length, long lastAccess) {
+            this.offset = offset;
+            this.length = length;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    // timeoutMillis : une session non accédée depuis ce délai est considérée comme expirée
+    public MappedFileSessionStore(Path file, long timeoutMillis) throws IOException {
+        this.file = file;
+        this.timeoutMillis = timeoutMillis;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        open();
+        if (end > 0 && liveBytes * 2 < end) compact();
+    }
+
+    @Override
+    public Map<String, Object> load(String sessionId) throws IOException {
+        lock.readLock().lock();
+        try {
+            Entry entry = index.get(sessionId);
+            if (entry == null || isExpired(entry, System.currentTimeMillis())) return null;
+            return readAttributes(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(String sessionId, SessionDelta delta) throws IOException {
+        lock.writeLock().lock();
+        try {
+            apply(sessionId, delta, System.currentTimeMillis());
+            buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(String sessionId) throws IOException {
+        save(sessionId, SessionDelta.deleted());
+    }
+
+    // Sessions relues sous le verrou de lecture puis sérialisées hors verrou ; le verrou d'écriture ne sert qu'aux ajouts,
+    // avec une seule synchronisation disque (force) pour tout le lot. Une session impossible à sérialiser est écartée
+    // seule : le reste du lot est écrit et le lot n'est pas rejoué
+    @Override
+    public void saveAll(Map<String, SessionDelta> deltas) throws IOException {
+        if (deltas.isEmpty()) return;
+        long now = System.currentTimeMillis();
+
+        Map<String, Entry> bases = new HashMap<>();
+        Map<String, Map<String, Object>> previous = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, SessionDelta> delta : deltas.entrySet()) {
+                Entry entry = index.get(delta.getKey());
+                bases.put(delta.getKey(), entry);
+                if (entry != null && !isExpired(entry, now) && !delta.getValue().isDeleted()) {
+                    previous.put(delta.getKey(), readAttributes(entry));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, byte[]> records = new HashMap<>();
+        for (Map.Entry<String, SessionDelta> delta : deltas.entrySet()) {
+            if (delta.getValue().isDeleted()) continue;
+            // Session supprimée ou expirée entre-temps : une écriture tardive ne la fait pas revivre
+            if (!previous.containsKey(delta.getKey()) && !delta.getValue().isCreated()) continue;
+            Map<String, Object> attributes = previous.get(delta.getKey());
+            if (attributes == null) attributes = new HashMap<>();
+            delta.getValue().applyTo(attributes);
+            try {
+                records.put(delta.getKey(), serialize(attributes));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Session changes dropped, attributes are not serializable: " + e);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, SessionDelta> delta : deltas.entrySet()) {
+                String sessionId = delta.getKey();
+                Entry current = index.get(sessionId);
+                if (current != bases.get(sessionId)) {
+                    // Écrite entre-temps par save() : refaite sous le verrou à partir de la nouvelle version
+                    try {
+                        apply(sessionId, delta.getValue(), now);
+                    } catch (ObjectStreamException e) {
+                        System.err.println("Session changes dropped, attributes are not serializable: " + e);
+                    }
+                } else if (delta.getValue().isDeleted()) {
+                    if (current != null && !isExpired(current, now)) append(sessionId, RECORD_DELETED, now, new byte[0]);
+                } else if (records.containsKey(sessionId)) {
+                    append(sessionId, RECORD_SESSION, now, records.get(sessionId));
+                }
+            }
+            buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                buffer.force();
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Le fichier est fermé pendant le point de reprise ; à la reprise il est relu (d'autres nœuds ont pu écrire)
+    @Override
+    public void beforeCheckpoint() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                buffer.force();
+                channel.close();
+            }
+            buffer = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void afterRestore() throws IOException {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            end = 0;
+            liveBytes = 0;
+            open();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getSessionCount() {
+        return index.size();
+    }
+
+    // Sous le verrou d'écriture
+    private void apply(String sessionId, SessionDelta delta, long now) throws IOException {
+        Entry previous = index.get(sessionId);
+        if (previous != null && isExpired(previous, now)) previous = null;
+
+        if (delta.isDeleted()) {
+            if (previous == null) return;
+            append(sessionId, RECORD_DELETED, now, new byte[0]);
+            return;
+        }
+
+        // Session supprimée ou expirée entre-temps : une écriture tardive ne la fait pas revivre
+        if (previous == null && !delta.isCreated()) return;
+
+        Map<String, Object> attributes = previous != null ? readAttributes(previous) : null;
+        if (attributes == null) attributes = new HashMap<>();
+        delta.applyTo(attributes);
+        append(sessionId, RECORD_SESSION, now, serialize(attributes));
+    }
+
+    private void append(String sessionId, byte type, long lastAccess, byte[] data) throws IOException {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER + id.length + data.length;
+        ensureCapacity(length);
+
+        ByteBuffer target = buffer.duplicate();
+        target.position(end);
+        target.putInt(length);
+        target.put(type);
+        target.putLong(lastAccess);
+        target.putShort((short) id.length);
+        target.put(id);
+        target.put(data);
+
+        Entry previous = type == RECORD_SESSION
+            ? index.put(sessionId, new Entry(end, length, lastAccess))
+            : index.remove(sessionId);
+        if (previous != null) liveBytes -= previous.length;
+        if (type == RECORD_SESSION) liveBytes += length;
+        end += length;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if ((long) end + length + 4 <= buffer.capacity()) return;
+
+        // D'abord récupérer la place des enregistrements périmés
+        if (liveBytes * 2 < end) {
+            compact();
+            if ((long) end + length + 4 <= buffer.capacity()) return;
+        }
+
+        long capacity = buffer.capacity();
+        while (capacity < (long) end + length + 4) {
+            capacity *= 2;
+        }
+        if (capacity > MAX_SIZE) {
+            if ((long) end + length + 4 > MAX_SIZE) throw new IOException("Session file is full: " + file);
+            capacity = MAX_SIZE;
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    // Relit le journal : le dernier enregistrement de chaque session l'emporte
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(INITIAL_SIZE, channel.size());
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, MAX_SIZE));
+
+        long now = System.currentTimeMillis();
+        ByteBuffer source = buffer.duplicate();
+        while (end + HEADER <= source.capacity()) {
+            int length = source.getInt(end);
+            // Zéros (fin du journal) ou enregistrement interrompu par un arrêt brutal
+            if (length < HEADER || end + length > source.capacity()) break;
+            byte type = source.get(end + 4);
+            long lastAccess = source.getLong(end + 5);
+            int idLength = source.getShort(end + 13);
+            if (idLength < 0 || HEADER + idLength > length) break;
+
+            byte[] id = new byte[idLength];
+            source.position(end + HEADER);
+            source.get(id);
+            String sessionId = new String(id, StandardCharsets.UTF_8);
+
+            Entry entry = new Entry(end, length, lastAccess);
+            Entry previous;
+            if (type == RECORD_SESSION && !isExpired(entry, now)) {
+                previous = index.put(sessionId, entry);
+                liveBytes += length;
+            } else {
+                previous = index.remove(sessionId);
+            }
+            if (previous != null) liveBytes -= previous.length;
+            end += length;
+        }
+        // Effacer un éventuel enregistrement partiel pour que le prochain ajout reparte proprement
+        if (end + 4 <= buffer.capacity()) buffer.putInt(end, 0);
+    }
+
+    // Ramène les sessions vivantes au début du fichier, sur place (un fichier mappé ne peut pas être remplacé partout)
+    private void compact() throws IOException {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, Entry>> live = new ArrayList<>(index.entrySet());
+        live.sort(Comparator.comparingInt(entry -> entry.getValue().offset));
+
+        ByteBuffer target = buffer.duplicate();
+        int position = 0;
+        liveBytes = 0;
+        for (Map.Entry<String, Entry> session : live) {
+            Entry entry = session.getValue();
+            if (isExpired(entry, now)) {
+                index.remove(session.getKey());
+                continue;
+            }
+            if (entry.offset != position) {
+                // Déplacement vers le début : l'enregistrement est copié entier avant d'être réécrit
+                byte[] record = new byte[entry.length];
+                target.position(entry.offset);
+                target.get(record);
+                target.position(position);
+                target.put(record);
+                index.put(session.getKey(), new Entry(position, entry.length, entry.lastAccess));
+            }
+            position += entry.length;
+            liveBytes += entry.length;
+        }
+        end = position;
+        buffer.putInt(end, 0);
+        buffer.force();
+    }
+
+    // null si l'enregistrement est illisible (arrêt brutal pendant un compactage) : la session est perdue, pas le store
+    private Map<String, Object> readAttributes(Entry entry) {
+        ByteBuffer source = buffer.duplicate();
+        int idLength = source.getShort(entry.offset + 13);
+        int dataOffset = entry.offset + HEADER + idLength;
+        byte[] data = new byte[entry.offset + entry.length - dataOffset];
+        source.position(dataOffset);
+        source.get(data);
+        try {
+            return deserialize(data);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return timeoutMillis > 0 && entry.lastAccess + timeoutMillis <= now;
+    }
+
+    // Les valeurs de session doivent être Serializable, comme pour la réplication des sessions du conteneur
+    private static byte[] serialize(Map<String, Object> attributes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new HashMap<>(attributes));
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deserialize(byte[] data) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                // classes de l'application web, pas celles du conteneur
+                try {
+                    return Class.forName(desc.getName(), false, Thread.currentThread().getContextClassLoader());
+                } catch (ClassNotFoundException e) {
+                    return super.resolveClass(desc);
+                }
+            }
+        }) {
+            return (Map<String, Object>) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unable to read session attributes", e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package session;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Session de la requête en cours quand un SessionStore est configuré : identifiant lu dans le cookie,
+// attributs venant du cache local du SessionManager, et liste des attributs modifiés (seuls écrits en fin de requête).
+// Partagée par les éléments d'un batch, éventuellement exécutés en parallèle : méthodes synchronisées
+public class SessionContext {
+    public static final String REQUEST_ATTRIBUTE = "framework.sessionContext";
+
+    private final SessionManager manager;
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private boolean resolved;
+    private SessionManager.CachedSession session;
+    // Session créée par ce contexte et pas encore écrite : seul cas où le store peut la créer
+    private boolean created;
+    private final Set<String> changed = new HashSet<>();
+    private final Set<String> removed = new HashSet<>();
+
+    SessionContext(SessionManager manager, HttpServletRequest request, HttpServletResponse response) {
+        this.manager = manager;
+        this.request = request;
+        this.response = response;
+    }
+
+    // null quand l'application garde la HttpSession du conteneur
+    public static SessionContext of(HttpServletRequest request) {
+        Object context = request.getAttribute(REQUEST_ATTRIBUTE);
+        return context instanceof SessionContext ? (SessionContext) context : null;
+    }
+
+    public synchronized Object get(String key) {
+        return resolve() ? session.attributes.get(key) : null;
+    }
+
+    // Refus immédiat d'une valeur non Serializable : l'erreur apparaît dans la requête fautive, pas lors de l'écriture différée
+    public synchronized void set(String key, Object value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Session attribute '" + key + "' is not Serializable: " + value.getClass().getName());
+        }
+        if (!resolve()) create();
+        session.attributes.put(key, value);
+        removed.remove(key);
+        changed.add(key);
+    }
+
+    public synchronized void remove(String key) {
+        if (!resolve()) return;
+        session.attributes.remove(key);
+        changed.remove(key);
+        removed.add(key);
+    }
+
+    public synchronized boolean exists() {
+        return resolve();
+    }
+
+    public synchronized String getId() {
+        return resolve() ? session.id : null;
+    }
+
+    public synchronized void invalidate() {
+        if (!resolve()) return;
+        manager.invalidate(session.id);
+        writeCookie("", 0);
+        session = null;
+        created = false;
+        changed.clear();
+        removed.clear();
+    }
+
+    // Fin de requête : uniquement les attributs modifiés ; une requête en lecture seule ne fait qu'entretenir l'expiration
+    synchronized void complete() {
+        if (session == null) return;
+        if (!changed.isEmpty() || !removed.isEmpty()) {
+            Map<String, Object> values = new HashMap<>();
+            for (String key : changed) {
+                Object value = session.attributes.get(key);
+                if (value != null) values.put(key, value);
+            }
+            manager.write(session, SessionDelta.of(values, removed, created));
+            created = false;
+            // Contexte réutilisable (connexion WebSocket) : la prochaine fin n'écrit que les nouveaux changements
+            changed.clear();
+            removed.clear();
+        } else {
+            manager.touch(session);
+        }
+    }
+
+    // Lecture paresseuse du cookie : une requête qui ne touche pas à la session ne charge rien
+    private boolean resolve() {
+        if (!resolved) {
+            resolved = true;
+            String cookieId = readCookie();
+            if (cookieId != null) session = manager.find(cookieId);
+        }
+        return session != null;
+    }
+
+    private void create() {
+        session = manager.create();
+        created = true;
+        writeCookie(session.id, -1);
+    }
+
+    private String readCookie() {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (manager.getCookieName().equals(cookie.getName())) return cookie.getValue();
+        }
+        return null;
+    }
+
+    private void writeCookie(String value, int maxAge) {
+        Cookie cookie = new Cookie(manager.getCookieName(), value);
+        String path = request.getContextPath();
+        cookie.setPath(path == null || path.isEmpty() ? "/" : path);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setAttribute("SameSite", "Lax");
+        cookie.setMaxAge(maxAge);
+        response.addCookie(cookie);
+    }
+}
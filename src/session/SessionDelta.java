@@ -0,0 +1,96 @@
+package session;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Modifications d'une session à écrire dans le SessionStore : seuls les attributs changés ou supprimés,
+// ou la suppression de la session entière. Immuable : plusieurs requêtes se cumulent avec merge().
+// Seul un delta isCreated() peut créer la session dans le store : les autres sont abandonnés si elle n'existe plus
+// (déconnexion ou expiration pendant qu'une autre requête, ou une connexion WebSocket, écrivait encore)
+public class SessionDelta {
+    private static final SessionDelta DELETED = new SessionDelta(Map.of(), Set.of(), true, false, false);
+
+    private final Map<String, Object> changed;
+    private final Set<String> removed;
+    private final boolean deleted;
+    // Aucune modification, mais la date de dernier accès doit avancer (expiration)
+    private final boolean touched;
+    // Première écriture d'une session que le SessionManager vient de créer
+    private final boolean created;
+
+    private SessionDelta(Map<String, Object> changed, Set<String> removed, boolean deleted, boolean touched,
+                         boolean created) {
+        this.changed = changed;
+        this.removed = removed;
+        this.deleted = deleted;
+        this.touched = touched;
+        this.created = created;
+    }
+
+    public static SessionDelta of(Map<String, Object> changed, Set<String> removed) {
+        return of(changed, removed, false);
+    }
+
+    public static SessionDelta of(Map<String, Object> changed, Set<String> removed, boolean created) {
+        return new SessionDelta(Collections.unmodifiableMap(new HashMap<>(changed)),
+                                Collections.unmodifiableSet(new HashSet<>(removed)), false, false, created);
+    }
+
+    public static SessionDelta deleted() {
+        return DELETED;
+    }
+
+    public static SessionDelta touched() {
+        return new SessionDelta(Map.of(), Set.of(), false, true, false);
+    }
+
+    public Map<String, Object> getChanged() {
+        return changed;
+    }
+
+    public Set<String> getRemoved() {
+        return removed;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public boolean isTouched() {
+        return touched;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    // Applique les modifications à l'état complet d'une session
+    public void applyTo(Map<String, Object> attributes) {
+        for (String key : removed) {
+            attributes.remove(key);
+        }
+        attributes.putAll(changed);
+    }
+
+    // this puis newer, en un seul delta
+    public SessionDelta merge(SessionDelta newer) {
+        // Une session supprimée ne revient pas : après invalidate() un nouvel identifiant est créé
+        if (deleted || newer.deleted) return DELETED;
+
+        Map<String, Object> mergedChanged = new HashMap<>(changed);
+        Set<String> mergedRemoved = new HashSet<>(removed);
+        for (String key : newer.removed) {
+            mergedChanged.remove(key);
+            mergedRemoved.add(key);
+        }
+        for (Map.Entry<String, Object> entry : newer.changed.entrySet()) {
+            mergedRemoved.remove(entry.getKey());
+            mergedChanged.put(entry.getKey(), entry.getValue());
+        }
+        return new SessionDelta(Collections.unmodifiableMap(mergedChanged), Collections.unmodifiableSet(mergedRemoved),
+                                false, touched || newer.touched, created || newer.created);
+    }
+}
@@ -0,0 +1,276 @@
+package session;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Utils;
+
+// Sessions gardées dans un SessionStore au lieu de la HttpSession du conteneur :
+// - cache local borné (LRU) devant le store, relu après session_cache_ttl_ms pour voir les écritures des autres nœuds
+// - seuls les attributs modifiés pendant la requête sont écrits (SessionDelta)
+// - écritures différées : les deltas d'une même session se cumulent et partent par lots (saveAll)
+public class SessionManager {
+    public static final String CONTEXT_ATTRIBUTE = "framework.sessionManager";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SessionStore store;
+    private final String cookieName;
+    private final long timeoutMillis;
+    private final int cacheSize;
+    private final long cacheTtlMillis;
+    private final int batchSize;
+    private final Map<String, CachedSession> cache;
+    // Écritures pas encore envoyées au store, une entrée cumulée par session
+    private final Map<String, SessionDelta> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // Session présente dans le cache local ; les attributs sont partagés par les requêtes simultanées du nœud
+    static class CachedSession {
+        final String id;
+        final Map<String, Object> attributes;
+        final long loadedAt = System.currentTimeMillis();
+        volatile long lastTouch = loadedAt;
+
+        CachedSession(String id, Map<String, Object> attributes) {
+            this.id = id;
+            this.attributes = new ConcurrentHashMap<>(attributes);
+        }
+    }
+
+    public SessionManager(SessionStore store, String cookieName, long timeoutMillis, int cacheSize,
+                          long cacheTtlMillis, long flushMillis, int batchSize) {
+        this.store = store;
+        this.cookieName = cookieName;
+        this.timeoutMillis = timeoutMillis;
+        this.cacheSize = Math.max(1, cacheSize);
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "framework-session-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Paramètres web.xml :
+    // session_store : vide = HttpSession du conteneur (null retourné), "mapped" = MappedFileSessionStore,
+    //   sinon classe SessionStore (constructeur (ServletConfig) ou sans argument)
+    // session_directory : répertoire du fichier de sessions "mapped" (par défaut <répertoire temporaire>/sessions)
+    // session_cookie (FRAMEWORK_SESSION), session_timeout_seconds (1800), session_cache_size (10000),
+    // session_cache_ttl_ms (30000), session_flush_ms (200), session_batch_size (256)
+    public static SessionManager fromConfig(ServletConfig config) throws ServletException {
+        String storeName = config.getInitParameter("session_store");
+        if (storeName == null || storeName.trim().isEmpty()) return null;
+
+        long timeoutMillis = Utils.getInitParameter(config, "session_timeout_seconds", 1800L) * 1000;
+        SessionStore store;
+        if ("mapped".equals(storeName.trim())) {
+            Path file = Utils.resolveDirectory(config, "session_directory", "sessions").resolve("sessions.dat");
+            try {
+                store = new MappedFileSessionStore(file, timeoutMillis);
+            } catch (IOException e) {
+                throw new ServletException("Unable to open session file: " + file, e);
+            }
+        } else {
+            store = instantiate(storeName.trim(), config);
+        }
+
+        String cookieName = config.getInitParameter("session_cookie");
+        if (cookieName == null || cookieName.trim().isEmpty()) cookieName = "FRAMEWORK_SESSION";
+        return new SessionManager(store, cookieName.trim(), timeoutMillis,
+            (int) Utils.getInitParameter(config, "session_cache_size", 10000L),
+            Utils.getInitParameter(config, "session_cache_ttl_ms", 30000L),
+            Math.max(1L, Utils.getInitParameter(config, "session_flush_ms", 200L)),
+            (int) Utils.getInitParameter(config, "session_batch_size", 256L));
+    }
+
+    // Début de requête : rien n'est lu tant que l'application ne touche pas à la session
+    public SessionContext begin(HttpServletRequest request, HttpServletResponse response) {
+        SessionContext context = new SessionContext(this, request, response);
+        request.setAttribute(SessionContext.REQUEST_ATTRIBUTE, context);
+        return context;
+    }
+
+    public void end(SessionContext context) {
+        context.complete();
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+
+    public SessionStore getStore() {
+        return store;
+    }
+
+    // Envoie au store toutes les écritures en attente (appelé aussi à l'arrêt)
+    public void flush() throws IOException {
+        flushScheduled.set(false);
+        while (!pending.isEmpty()) {
+            Map<String, SessionDelta> batch = new HashMap<>();
+            Iterator<Map.Entry<String, SessionDelta>> entries = pending.entrySet().iterator();
+            while (entries.hasNext() && batch.size() < batchSize) {
+                Map.Entry<String, SessionDelta> entry = entries.next();
+                batch.put(entry.getKey(), entry.getValue());
+            }
+            store.saveAll(batch);
+            // Retiré seulement après l'écriture, et seulement si rien ne s'y est ajouté entre-temps
+            for (Map.Entry<String, SessionDelta> written : batch.entrySet()) {
+                pending.remove(written.getKey(), written.getValue());
+            }
+        }
+    }
+
+    // Point de reprise (CRaC) : écritures en attente envoyées, store fermé ; à la reprise le cache local est
+    // abandonné car les sessions ont pu changer sur les autres nœuds pendant l'arrêt
+    public void beforeCheckpoint() throws IOException {
+        flush();
+        store.beforeCheckpoint();
+    }
+
+    public void afterRestore() throws IOException {
+        synchronized (cache) {
+            cache.clear();
+        }
+        store.afterRestore();
+    }
+
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+            store.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    CachedSession find(String id) {
+        if (!isValidId(id)) return null;
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedSession cached = cache.get(id);
+            if (cached != null && now - cached.loadedAt < cacheTtlMillis) return cached;
+        }
+
+        Map<String, Object> attributes;
+        try {
+            attributes = store.load(id);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        // Écritures de ce nœud pas encore envoyées : elles restent visibles
+        SessionDelta unsaved = pending.get(id);
+        if (unsaved != null) {
+            if (unsaved.isDeleted()) return null;
+            if (attributes == null && !unsaved.isCreated()) return null;
+            if (attributes == null) attributes = new HashMap<>();
+            unsaved.applyTo(attributes);
+        }
+        if (attributes == null) return null;
+
+        CachedSession session = new CachedSession(id, attributes);
+        put(session);
+        return session;
+    }
+
+    CachedSession create() {
+        byte[] bytes = new byte[24];
+        RANDOM.nextBytes(bytes);
+        CachedSession session = new CachedSession(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), Map.of());
+        put(session);
+        return session;
+    }
+
+    void write(CachedSession session, SessionDelta delta) {
+        session.lastTouch = System.currentTimeMillis();
+        enqueue(session.id, delta);
+    }
+
+    // Une requête sans modification n'écrit que pour repousser l'expiration, au plus une fois par quart du délai
+    void touch(CachedSession session) {
+        long now = System.currentTimeMillis();
+        if (timeoutMillis <= 0 || now - session.lastTouch < timeoutMillis / 4) return;
+        session.lastTouch = now;
+        enqueue(session.id, SessionDelta.touched());
+    }
+
+    void invalidate(String id) {
+        synchronized (cache) {
+            cache.remove(id);
+        }
+        enqueue(id, SessionDelta.deleted());
+    }
+
+    private void enqueue(String id, SessionDelta delta) {
+        pending.merge(id, delta, SessionDelta::merge);
+        // Lot plein : envoi sans attendre le prochain passage périodique
+        if (pending.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void put(CachedSession session) {
+        synchronized (cache) {
+            cache.put(session.id, session);
+            if (cache.size() > cacheSize) {
+                Iterator<String> eldest = cache.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            // les deltas restent en attente : nouvel essai au prochain passage
+            e.printStackTrace();
+        }
+    }
+
+    private static boolean isValidId(String id) {
+        if (id == null || id.length() != 32) return false;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') return false;
+        }
+        return true;
+    }
+
+    private static SessionStore instantiate(String className, ServletConfig config) throws ServletException {
+        try {
+            Class<?> storeClass = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            try {
+                return (SessionStore) storeClass.getConstructor(ServletConfig.class).newInstance(config);
+            } catch (NoSuchMethodException e) {
+                return (SessionStore) storeClass.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new ServletException("Unable to create session store: " + className, e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package session;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Stockage des sessions partagé entre les nœuds (SPI) ; le SessionManager garde devant lui un cache local
+// et lui envoie les écritures par lots. Implémentation fournie : MappedFileSessionStore
+public interface SessionStore {
+
+    // Attributs de la session, null si elle n'existe pas ou a expiré
+    Map<String, Object> load(String sessionId) throws IOException;
+
+    // Écrit seulement les attributs modifiés ; un delta isTouched() ne fait qu'avancer la date d'accès.
+    // Session absente ou expirée : créée seulement si delta.isCreated(), sinon le delta est ignoré
+    void save(String sessionId, SessionDelta delta) throws IOException;
+
+    void delete(String sessionId) throws IOException;
+
+    // Lot d'écritures différées ; à redéfinir quand le stockage sait regrouper les écritures
+    default void saveAll(Map<String, SessionDelta> deltas) throws IOException {
+        for (Map.Entry<String, SessionDelta> entry : deltas.entrySet()) {
+            if (entry.getValue().isDeleted()) {
+                delete(entry.getKey());
+            } else {
+                save(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    default void close() throws IOException {
+    }
+
+    // Point de reprise (CRaC) : fichiers et connexions fermés avant l'instantané, rouverts à la reprise
+    default void beforeCheckpoint() throws IOException {
+    }
+
+    default void afterRestore() throws IOException {
+    }
+}
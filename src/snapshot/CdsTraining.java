@@ -0,0 +1,44 @@
+package snapshot;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jakarta.servlet.ServletConfig;
+
+// Exécution d'entraînement AppCDS : une fois le démarrage (et la mise en température) terminé, les classes chargées
+// sont écrites dans une archive CDS dynamique, à réutiliser aux démarrages suivants avec -XX:SharedArchiveFile=<archive>.
+// Paramètre web.xml : cds_archive (chemin de l'archive). La JVM d'entraînement doit être lancée avec
+// -XX:+RecordDynamicDumpInfo ; l'écriture passe par la commande de diagnostic VM.cds (jcmd), appelée en JMX
+public class CdsTraining {
+    private final Path archive;
+
+    public CdsTraining(Path archive) {
+        this.archive = archive;
+    }
+
+    // null hors exécution d'entraînement
+    public static CdsTraining fromConfig(ServletConfig config) {
+        String archive = config.getInitParameter("cds_archive");
+        if (archive == null || archive.trim().isEmpty()) return null;
+        return new CdsTraining(Paths.get(archive.trim()).toAbsolutePath());
+    }
+
+    public void dump() {
+        try {
+            if (archive.getParent() != null) Files.createDirectories(archive.getParent());
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Object output = server.invoke(new ObjectName("com.sun.management:type=DiagnosticCommand"), "vmCds",
+                new Object[] { new String[] { "dynamic_dump", archive.toString() } },
+                new String[] { String[].class.getName() });
+            System.err.println("CDS archive requested: " + archive + (output != null ? " " + output : ""));
+        } catch (Exception e) {
+            System.err.println("Unable to write CDS archive " + archive + " (start the JVM with -XX:+RecordDynamicDumpInfo, "
+                + "or use -XX:ArchiveClassesAtExit=" + archive + "): " + e);
+        }
+    }
+}
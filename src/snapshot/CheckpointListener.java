@@ -0,0 +1,9 @@
+package snapshot;
+
+// Ressource à fermer avant un point de reprise (CRaC) et à rouvrir à la reprise : fichiers, threads de surveillance...
+public interface CheckpointListener {
+
+    void beforeCheckpoint() throws Exception;
+
+    void afterRestore() throws Exception;
+}
@@ -0,0 +1,61 @@
+package snapshot;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Enregistrement auprès de CRaC (Coordinated Restore at Checkpoint) sans dépendance de compilation :
+// l'API org.crac (bibliothèque) ou jdk.crac (JDK CRaC) est cherchée par réflexion et la Resource est un Proxy.
+// Sans CRaC, register() ne fait rien
+public final class Checkpoints {
+    private static final String[] API_PACKAGES = { "org.crac", "jdk.crac" };
+    // CRaC ne garde que des références faibles vers les Resource enregistrées
+    private static final List<Object> RESOURCES = new CopyOnWriteArrayList<>();
+
+    private Checkpoints() {}
+
+    // false si aucune API CRaC n'est disponible
+    public static boolean register(CheckpointListener listener) {
+        for (String apiPackage : API_PACKAGES) {
+            Class<?> resourceType;
+            try {
+                resourceType = Class.forName(apiPackage + ".Resource");
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+            try {
+                Object context = Class.forName(apiPackage + ".Core").getMethod("getGlobalContext").invoke(null);
+                Object resource = Proxy.newProxyInstance(Checkpoints.class.getClassLoader(),
+                    new Class<?>[] { resourceType }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "beforeCheckpoint":
+                                listener.beforeCheckpoint();
+                                return null;
+                            case "afterRestore":
+                                listener.afterRestore();
+                                return null;
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            case "toString":
+                                return "CheckpointResource[" + listener + "]";
+                            default:
+                                return null;
+                        }
+                    });
+                Class.forName(apiPackage + ".Context").getMethod("register", resourceType).invoke(context, resource);
+                RESOURCES.add(resource);
+                return true;
+            } catch (InvocationTargetException e) {
+                System.err.println("CRaC registration failed: " + e.getCause());
+                return false;
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                System.err.println("CRaC registration failed: " + e);
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,157 @@
+package snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import jakarta.servlet.ServletConfig;
+import other.Handler;
+import other.Mapping;
+import other.RouteRegistry;
+import other.Utils;
+import other.VerbAction;
+
+// Table des routes enregistrée après un premier démarrage et réutilisée tant que les classes du package
+// des Controllers n'ont pas changé : ni chargement de toutes les classes du package, ni validation
+// d'unicité, ni parcours des annotations. L'empreinte couvre le nom, la taille et la date de chaque .class ;
+// un CRC32 du contenu protège contre un fichier tronqué. Au moindre doute, le scan complet reprend.
+// Paramètres web.xml : startup_snapshot (false par défaut), startup_snapshot_directory
+public class RouteSnapshot {
+    private static final int MAGIC = 0x46525331;  // "FRS1"
+
+    // Route enregistrée : URL, verbe (minuscules, comme les VerbAction), Controller et nom de la méthode
+    public static final class Route {
+        public final String url;
+        public final String verb;
+        public final String className;
+        public final String methodName;
+
+        Route(String url, String verb, String className, String methodName) {
+            this.url = url;
+            this.verb = verb;
+            this.className = className;
+            this.methodName = methodName;
+        }
+    }
+
+    private final Path file;
+
+    public RouteSnapshot(Path file) {
+        this.file = file;
+    }
+
+    // null quand l'instantané n'est pas demandé
+    public static RouteSnapshot fromConfig(ServletConfig config) {
+        if (!Boolean.parseBoolean(config.getInitParameter("startup_snapshot"))) return null;
+        return new RouteSnapshot(Utils.resolveDirectory(config, "startup_snapshot_directory", "startup").resolve("routes.bin"));
+    }
+
+    // Empreinte des classes compilées du package (métadonnées seulement, aucun fichier n'est lu)
+    public static String fingerprint(String packageName, List<File> directories) throws IOException {
+        List<String> entries = new ArrayList<>();
+        for (File directory : directories) {
+            if (!directory.isDirectory()) continue;
+            Path root = directory.toPath();
+            try (var paths = Files.walk(root)) {
+                for (Path path : (Iterable<Path>) paths.filter(p -> p.toString().endsWith(".class"))::iterator) {
+                    entries.add(root.relativize(path) + "|" + Files.size(path) + "|" + Files.getLastModifiedTime(path).toMillis());
+                }
+            }
+        }
+        Collections.sort(entries);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(packageName.getBytes(StandardCharsets.UTF_8));
+            for (String entry : entries) {
+                digest.update((byte) '\n');
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Routes enregistrées pour cette empreinte, null si absentes, périmées ou illisibles
+    public List<Route> load(String fingerprint, List<String> controllerNames) {
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            byte[] content = Files.readAllBytes(file);
+            if (content.length < 8) return null;
+            CRC32 crc = new CRC32();
+            crc.update(content, 0, content.length - 8);
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+            input.skipBytes(content.length - 8);
+            if (input.readLong() != crc.getValue()) return null;
+
+            input = new DataInputStream(new ByteArrayInputStream(content, 0, content.length - 8));
+            if (input.readInt() != MAGIC || !fingerprint.equals(input.readUTF())) return null;
+            int controllerCount = input.readInt();
+            for (int i = 0; i < controllerCount; i++) controllerNames.add(input.readUTF());
+            int routeCount = input.readInt();
+            List<Route> routes = new ArrayList<>(routeCount);
+            for (int i = 0; i < routeCount; i++) {
+                routes.add(new Route(input.readUTF(), input.readUTF(), input.readUTF(), input.readUTF()));
+            }
+            return routes;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Écrit la table publiée par le registre (fichier temporaire puis déplacement atomique)
+    public void save(String fingerprint, RouteRegistry registry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeUTF(fingerprint);
+
+        List<Class<?>> controllers = registry.getControllers();
+        output.writeInt(controllers.size());
+        for (Class<?> controller : controllers) output.writeUTF(controller.getName());
+
+        List<Route> routes = new ArrayList<>();
+        for (Map.Entry<String, Mapping> entry : registry.snapshot().entrySet()) {
+            for (VerbAction verbAction : entry.getValue().getVerbMethodes()) {
+                Handler handler = verbAction.getHandler();
+                routes.add(new Route(entry.getKey(), verbAction.getVerbe(), handler.getControllerClass().getName(),
+                                     verbAction.getMethode()));
+            }
+        }
+        output.writeInt(routes.size());
+        for (Route route : routes) {
+            output.writeUTF(route.url);
+            output.writeUTF(route.verb);
+            output.writeUTF(route.className);
+            output.writeUTF(route.methodName);
+        }
+        output.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        output.writeLong(crc.getValue());
+        output.flush();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, bytes.toByteArray());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
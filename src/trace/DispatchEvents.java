@@ -0,0 +1,125 @@
+package trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import other.Utils;
+
+// Événements Java Flight Recorder d'une requête, un type par phase du FrontController.
+// Sans enregistrement JFR en cours, begin/end/shouldCommit ne font rien et l'événement n'est pas alloué (escape analysis).
+// Les seuils ne gardent que les phases lentes ; ils se changent dans les réglages de l'enregistrement, par exemple :
+//   jcmd <pid> JFR.start settings=profile framework.Dispatch#threshold=0ms
+// Les champs texte ne sont remplis qu'après shouldCommit(), donc seulement pour les événements gardés
+public final class DispatchEvents {
+    public static final String OK = "ok";
+    public static final String FAILED = "failed";
+    public static final String DENIED = "denied";
+    public static final String INVALID = "invalid";
+    public static final String NOT_FOUND = "not_found";
+    public static final String TIMEOUT = "timeout";
+
+    private DispatchEvents() {}
+
+    @Category({ "Framework", "Dispatch" })
+    @StackTrace(false)
+    public abstract static class PhaseEvent extends Event {
+        @Label("Route")
+        public String route;
+
+        @Label("Verb")
+        public String verb;
+
+        @Label("Outcome")
+        public String outcome;
+    }
+
+    @Name("framework.Dispatch")
+    @Label("Request Dispatch")
+    @Description("Traitement complet d'une requête par le FrontController")
+    @Threshold("20 ms")
+    public static final class Dispatch extends PhaseEvent {
+        @Label("Status")
+        public int status;
+
+        @Label("Request Size")
+        @DataAmount
+        public long requestBytes;
+
+        @Label("Response Size")
+        @DataAmount
+        public long responseBytes;
+    }
+
+    @Name("framework.Routing")
+    @Label("Routing")
+    @Threshold("1 ms")
+    public static final class Routing extends PhaseEvent {}
+
+    @Name("framework.Authentication")
+    @Label("Authentication")
+    @Threshold("5 ms")
+    public static final class Authentication extends PhaseEvent {
+        @Label("Required Role")
+        public String requiredRole;
+    }
+
+    @Name("framework.Binding")
+    @Label("Parameter Binding")
+    @Threshold("5 ms")
+    public static final class Binding extends PhaseEvent {
+        @Label("Parameters")
+        public int parameters;
+
+        @Label("Request Size")
+        @DataAmount
+        public long requestBytes;
+    }
+
+    @Name("framework.Validation")
+    @Label("Validation")
+    @Threshold("5 ms")
+    public static final class Validation extends PhaseEvent {
+        @Label("Model Class")
+        public Class<?> modelClass;
+
+        @Label("Errors")
+        public int errors;
+    }
+
+    @Name("framework.Invocation")
+    @Label("Controller Invocation")
+    @Threshold("10 ms")
+    public static final class Invocation extends PhaseEvent {
+        @Label("Controller")
+        public Class<?> controller;
+
+        @Label("Method")
+        public String method;
+    }
+
+    @Name("framework.Render")
+    @Label("Result Rendering")
+    @Threshold("5 ms")
+    public static final class Render extends PhaseEvent {
+        @Label("Result Type")
+        public Class<?> resultType;
+
+        @Label("Response Size")
+        @DataAmount
+        public long responseBytes;
+    }
+
+    // À appeler après end() et un shouldCommit() positif : route, verbe et issue, puis enregistrement
+    public static void commit(PhaseEvent event, HttpServletRequest request, String outcome) {
+        event.route = Utils.getRelativeURI(request);
+        event.verb = request.getMethod();
+        event.outcome = outcome;
+        event.commit();
+    }
+}
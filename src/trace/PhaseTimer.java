@@ -0,0 +1,76 @@
+package trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Durées des phases d'une requête pour l'en-tête Server-Timing. Créé seulement quand l'en-tête est demandé :
+// sinon les phases ne font qu'un getAttribute qui renvoie null. Pendant la requête, uniquement des System.nanoTime()
+// rangés dans un tableau ; le texte de l'en-tête n'est construit qu'à la fin
+public final class PhaseTimer {
+    public static final String REQUEST_ATTRIBUTE = "framework.phaseTimer";
+
+    public enum Phase {
+        ROUTING("routing"),
+        AUTH("auth"),
+        BINDING("bind"),        // comprend la validation
+        VALIDATION("validate"),
+        CONTROLLER("controller"),
+        RENDER("render");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private final long start;
+    private final long[] durations = new long[Phase.values().length];
+    private final boolean[] recorded = new boolean[durations.length];
+
+    private PhaseTimer(long start) {
+        this.start = start;
+    }
+
+    // Mesure commencée avant la recherche de la route, d'où le début donné
+    public static PhaseTimer start(HttpServletRequest request, long start) {
+        PhaseTimer timer = new PhaseTimer(start);
+        request.setAttribute(REQUEST_ATTRIBUTE, timer);
+        return timer;
+    }
+
+    public static PhaseTimer of(HttpServletRequest request) {
+        Object timer = request.getAttribute(REQUEST_ATTRIBUTE);
+        return timer instanceof PhaseTimer ? (PhaseTimer) timer : null;
+    }
+
+    // Une phase répétée (plusieurs @ModelParam) cumule ses durées
+    public void record(Phase phase, long phaseStart) {
+        long elapsed = System.nanoTime() - phaseStart;
+        synchronized (this) {
+            durations[phase.ordinal()] += elapsed;
+            recorded[phase.ordinal()] = true;
+        }
+    }
+
+    // routing;dur=0.042, auth;dur=0.310, ..., total;dur=12.500 (millisecondes)
+    public synchronized String toHeader() {
+        long total = System.nanoTime() - start;
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : Phase.values()) {
+            if (!recorded[phase.ordinal()]) continue;
+            appendMetric(header, phase.metric, durations[phase.ordinal()]);
+            header.append(", ");
+        }
+        appendMetric(header, "total", total);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        long micros = nanos / 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) header.append('0');
+        if (fraction < 10) header.append('0');
+        header.append(fraction);
+    }
+}
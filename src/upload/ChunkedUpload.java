@@ -0,0 +1,206 @@
+package upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Upload par morceaux en cours : fichier <id>.part écrit en place (écritures positionnelles, plusieurs morceaux
+// peuvent arriver en parallèle) et petit index <id>.idx des plages reçues, réécrit après chaque morceau
+public class ChunkedUpload {
+    private static final int CHUNK_BUFFER = 64 * 1024;
+
+    private final String id;
+    private final String fileName;
+    private final long size;
+    // Client qui a ouvert l'upload (adresse), pour la limite d'uploads ouverts par client
+    private final String owner;
+    private final Path dataFile;
+    private final Path indexFile;
+    private final FileChannel channel;
+    // Plages reçues, fusionnées : début -> fin (exclusive)
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+    private long received;
+    // Écrit par les threads des requêtes, lu par l'expiration sur d'autres threads
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    private ChunkedUpload(String id, String fileName, long size, String owner, Path directory) throws IOException {
+        this.id = id;
+        this.fileName = fileName;
+        this.size = size;
+        this.owner = owner;
+        this.dataFile = directory.resolve(id + ".part");
+        this.indexFile = directory.resolve(id + ".idx");
+        this.channel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public static ChunkedUpload create(String id, String fileName, long size, String owner, Path directory)
+        throws IOException
+    {
+        ChunkedUpload upload = new ChunkedUpload(id, fileName, size, owner, directory);
+        upload.persist();
+        return upload;
+    }
+
+    // Reprise après redémarrage : null si l'index n'existe pas
+    public static ChunkedUpload load(String id, Path directory) throws IOException {
+        Path indexFile = directory.resolve(id + ".idx");
+        if (!Files.isRegularFile(indexFile)) return null;
+
+        Map<String, String> values = new TreeMap<>();
+        for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+            int separator = line.indexOf('=');
+            if (separator > 0) values.put(line.substring(0, separator), line.substring(separator + 1));
+        }
+
+        ChunkedUpload upload = new ChunkedUpload(id, URLDecoder.decode(values.get("name"), StandardCharsets.UTF_8),
+                                                    Long.parseLong(values.get("size")),
+                                                    URLDecoder.decode(values.getOrDefault("owner", ""), StandardCharsets.UTF_8),
+                                                    directory);
+        // Activité : dernier morceau reçu avant l'arrêt
+        upload.lastActivity = Files.getLastModifiedTime(indexFile).toMillis();
+        String ranges = values.getOrDefault("ranges", "");
+        for (String range : ranges.split(",")) {
+            int dash = range.indexOf('-');
+            if (dash > 0) upload.addRange(Long.parseLong(range.substring(0, dash)), Long.parseLong(range.substring(dash + 1)));
+        }
+        return upload;
+    }
+
+    // Écrit le morceau à partir de offset ; les octets effectivement écrits sont enregistrés même si le flux s'interrompt
+    public long write(long offset, InputStream content) throws IOException {
+        if (offset < 0 || offset > size) throw new IllegalArgumentException("Offset out of range: " + offset);
+
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BUFFER);
+        byte[] array = buffer.array();
+        long position = offset;
+        try {
+            int read;
+            while ((read = content.read(array)) != -1) {
+                if (position + read > size) throw new IllegalArgumentException("Chunk exceeds the declared size of " + size);
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+        } finally {
+            if (position > offset) {
+                synchronized (this) {
+                    addRange(offset, position);
+                    persist();
+                }
+            }
+        }
+        return position - offset;
+    }
+
+    public synchronized boolean isComplete() {
+        return received == size;
+    }
+
+    public synchronized long getReceived() {
+        return received;
+    }
+
+    public synchronized List<long[]> getRanges() {
+        List<long[]> copy = new ArrayList<>();
+        ranges.forEach((start, end) -> copy.add(new long[] { start, end }));
+        return copy;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Path getDataFile() {
+        return dataFile;
+    }
+
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    // Fin de l'upload : le fichier de données est rendu à l'appelant, l'index disparaît
+    public synchronized Path finish() throws IOException {
+        channel.force(false);
+        channel.close();
+        Files.deleteIfExists(indexFile);
+        return dataFile;
+    }
+
+    public synchronized void discard() throws IOException {
+        channel.close();
+        Files.deleteIfExists(indexFile);
+        Files.deleteIfExists(dataFile);
+    }
+
+    private void addRange(long start, long end) {
+        lastActivity = System.currentTimeMillis();
+        Map.Entry<Long, Long> previous = ranges.floorEntry(start);
+        if (previous != null && previous.getValue() >= start) {
+            start = previous.getKey();
+            end = Math.max(end, previous.getValue());
+            ranges.remove(previous.getKey());
+        }
+        Map.Entry<Long, Long> next;
+        while ((next = ranges.ceilingEntry(start)) != null && next.getKey() <= end) {
+            end = Math.max(end, next.getValue());
+            ranges.remove(next.getKey());
+        }
+        ranges.put(start, end);
+
+        long total = 0;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            total += range.getValue() - range.getKey();
+        }
+        received = total;
+    }
+
+    // Index réécrit dans un fichier temporaire puis renommé : jamais à moitié écrit
+    private void persist() throws IOException {
+        StringBuilder content = new StringBuilder();
+        content.append("name=").append(URLEncoder.encode(fileName, StandardCharsets.UTF_8)).append('\n');
+        content.append("size=").append(size).append('\n');
+        content.append("owner=").append(URLEncoder.encode(owner, StandardCharsets.UTF_8)).append('\n');
+        content.append("ranges=");
+        boolean first = true;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            if (!first) content.append(',');
+            content.append(range.getKey()).append('-').append(range.getValue());
+            first = false;
+        }
+        content.append('\n');
+
+        Path temp = indexFile.resolveSibling(id + ".idx.tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import batch.BatchProcessor;
+import batch.BatchRequestWrapper;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import interceptor.InterceptorRegistry;
+import other.FileUpload;
+import other.Handler;
+import other.Utils;
+
+// Points d'entrée /__upload : upload reprenable d'un gros fichier, morceau par morceau
+//   POST /__upload?fileName=a.zip&size=N                 -> {"id": ..., "size": N, "received": 0}
+//   PUT  /__upload/<id>?offset=K  (corps brut)           -> {"received": ..., "complete": ...}
+//   GET  /__upload/<id>                                  -> plages déjà reçues, pour reprendre après une coupure
+//   POST /__upload/<id>/complete?url=/route&param=file   -> la route reçoit un FileUpload dans son paramètre "file"
+// Les morceaux peuvent être envoyés en parallèle, dans n'importe quel ordre.
+// Désactivé par défaut ; une fois activé, chaque requête passe par les intercepteurs de la classe de garde
+// (authentification, limites, délestage) et le nombre d'uploads ouverts est borné, au total et par client
+public class ChunkedUploads {
+    public static final String UPLOAD_URI = "/__upload";
+    private static final String ATTRIBUTE_PREFIX = "framework.chunkedUpload.";
+    private static final long DEFAULT_MAX_FILE_SIZE = 1024L * 1024 * 1024;
+
+    private final UploadStore store;
+    private final BatchProcessor.ItemDispatcher dispatcher;
+    private final Path directory;
+    private final long maxFileSize;
+    private final long expiryMillis;
+    private final int maxOpen;
+    private final int maxOpenPerClient;
+    private final Handler guard;
+    private final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<>();
+
+    public ChunkedUploads(UploadStore store, BatchProcessor.ItemDispatcher dispatcher, Path directory,
+                          long maxFileSize, long expiryMillis, int maxOpen, int maxOpenPerClient, Handler guard)
+        throws IOException
+    {
+        this.store = store;
+        this.dispatcher = dispatcher;
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.expiryMillis = expiryMillis;
+        this.maxOpen = maxOpen;
+        this.maxOpenPerClient = maxOpenPerClient;
+        this.guard = guard;
+        Files.createDirectories(directory);
+        restore();
+    }
+
+    // Paramètres web.xml :
+    // chunked_uploads : true pour activer /__upload (false par défaut : null, l'URL n'est pas servie)
+    // chunked_upload_directory : fichiers en cours (par défaut <répertoire temporaire du conteneur>/chunked-uploads)
+    // chunked_upload_expiry_seconds : un upload sans morceau reçu depuis ce délai est abandonné (86400, 0 = jamais)
+    // chunked_upload_max_file_size : taille maximale annoncée à l'ouverture (upload_max_file_size, sinon 1 Go ; 0 = sans limite)
+    // chunked_upload_max_open / chunked_upload_max_per_client : uploads ouverts au total (100) et par adresse (5)
+    // chunked_upload_guard : classe dont les annotations (@Authentication, @RateLimit, @MaxConcurrent, @Priority,
+    //                        @Interceptors) s'appliquent à /__upload
+    public static ChunkedUploads fromConfig(ServletConfig config, UploadStore store, BatchProcessor.ItemDispatcher dispatcher,
+                                            InterceptorRegistry interceptorRegistry) throws ServletException {
+        if (!Boolean.parseBoolean(config.getInitParameter("chunked_uploads"))) return null;
+
+        long uploadMaxFileSize = Utils.getInitParameter(config, "upload_max_file_size", 0L);
+        long maxFileSize = Utils.getInitParameter(config, "chunked_upload_max_file_size",
+                                                  uploadMaxFileSize > 0 ? uploadMaxFileSize : DEFAULT_MAX_FILE_SIZE);
+        long expirySeconds = Utils.getInitParameter(config, "chunked_upload_expiry_seconds", 86400L);
+        int maxOpen = (int) Utils.getInitParameter(config, "chunked_upload_max_open", 100L);
+        int maxOpenPerClient = (int) Utils.getInitParameter(config, "chunked_upload_max_per_client", 5L);
+        Path directory = Utils.resolveDirectory(config, "chunked_upload_directory", "chunked-uploads");
+        Handler guard = createGuard(config.getInitParameter("chunked_upload_guard"), interceptorRegistry);
+        try {
+            return new ChunkedUploads(store, dispatcher, directory, maxFileSize, expirySeconds * 1000,
+                                      maxOpen, maxOpenPerClient, guard);
+        } catch (IOException e) {
+            throw new ServletException("Unable to initialize chunked upload directory: " + directory, e);
+        }
+    }
+
+    // Route fictive de /__upload : sans classe de garde, seuls le délestage et les intercepteurs globaux s'appliquent
+    private static Handler createGuard(String className, InterceptorRegistry interceptorRegistry) throws ServletException {
+        Class<?> guardClass = ChunkedUploads.class;
+        if (className != null && !className.trim().isEmpty()) {
+            try {
+                guardClass = Class.forName(className.trim(), true, Thread.currentThread().getContextClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new ServletException("Unknown chunked upload guard class: " + className, e);
+            }
+        }
+        try {
+            Method process = ChunkedUploads.class.getMethod("process", HttpServletRequest.class, HttpServletResponse.class);
+            return new Handler(UPLOAD_URI, "post", guardClass, process, interceptorRegistry.resolve(guardClass, process), 0L);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Handler getGuard() {
+        return guard;
+    }
+
+    public static boolean isChunkedUploadRequest(String relativeURI) {
+        return relativeURI.equals(UPLOAD_URI) || relativeURI.startsWith(UPLOAD_URI + "/");
+    }
+
+    // Attribut de requête lu par Utils à la place de request.getPart(name)
+    public static String attributeName(String parameterName) {
+        return ATTRIBUTE_PREFIX + parameterName;
+    }
+
+    public void process(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = Utils.getRelativeURI(request).substring(UPLOAD_URI.length());
+        String method = request.getMethod();
+
+        if (path.isEmpty() || path.equals("/")) {
+            if ("POST".equals(method)) {
+                open(request, response);
+            } else {
+                response.setHeader("Allow", "POST");
+                response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            }
+            return;
+        }
+
+        String[] segments = path.substring(1).split("/");
+        if (segments.length > 2 || (segments.length == 2 && !segments[1].equals("complete"))) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        ChunkedUpload upload = find(segments[0]);
+        if (upload == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown upload: " + segments[0]);
+            return;
+        }
+
+        if (segments.length == 2) {
+            if ("POST".equals(method)) {
+                complete(upload, request, response);
+            } else {
+                response.setHeader("Allow", "POST");
+                response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            }
+        } else if ("PUT".equals(method)) {
+            writeChunk(upload, request, response);
+        } else if ("GET".equals(method) || "HEAD".equals(method)) {
+            writeJson(response, status(upload));
+        } else if ("DELETE".equals(method)) {
+            uploads.remove(upload.getId(), upload);
+            upload.discard();
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+        } else {
+            response.setHeader("Allow", "GET, HEAD, PUT, DELETE");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        }
+    }
+
+    private void open(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String fileName = request.getParameter("fileName");
+        long size = parseLong(request.getParameter("size"));
+        if (fileName == null || fileName.trim().isEmpty() || size < 0) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "fileName and size parameters are required");
+            return;
+        }
+        if (maxFileSize > 0 && size > maxFileSize) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "File " + fileName + " exceeds the maximum size of " + maxFileSize + " bytes");
+            return;
+        }
+
+        expireStale();
+
+        // Seul le nom du fichier est gardé (pas de chemin venant du client)
+        fileName = Path.of(fileName.trim().replace('\\', '/')).getFileName().toString();
+        String owner = request.getRemoteAddr();
+        String id = UUID.randomUUID().toString();
+        ChunkedUpload upload;
+        // Comptage et ajout sous le même verrou : les limites tiennent même avec des ouvertures simultanées
+        synchronized (uploads) {
+            if (maxOpen > 0 && uploads.size() >= maxOpen) {
+                response.setHeader("Retry-After", "60");
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many uploads in progress");
+                return;
+            }
+            if (maxOpenPerClient > 0 && countOpen(owner) >= maxOpenPerClient) {
+                response.setHeader("Retry-After", "60");
+                response.sendError(429, "Too many uploads in progress for this client");
+                return;
+            }
+            upload = ChunkedUpload.create(id, fileName, size, owner, directory);
+            uploads.put(id, upload);
+        }
+
+        response.setStatus(HttpServletResponse.SC_CREATED);
+        response.setHeader("Location", request.getContextPath() + UPLOAD_URI + "/" + id);
+        writeJson(response, status(upload));
+    }
+
+    private void writeChunk(ChunkedUpload upload, HttpServletRequest request, HttpServletResponse response)
+        throws IOException
+    {
+        long offset = parseLong(request.getParameter("offset"));
+        if (offset < 0 || offset > upload.getSize()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "A valid offset parameter is required");
+            return;
+        }
+
+        try (InputStream content = request.getInputStream()) {
+            upload.write(offset, content);
+        } catch (IllegalArgumentException e) {
+            // Les octets dans les limites sont gardés : le client reprend d'après GET /__upload/<id>
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, e.getMessage());
+            return;
+        }
+
+        JsonObject result = new JsonObject();
+        result.addProperty("received", upload.getReceived());
+        result.addProperty("complete", upload.isComplete());
+        writeJson(response, result);
+    }
+
+    private void complete(ChunkedUpload upload, HttpServletRequest request, HttpServletResponse response)
+        throws IOException
+    {
+        if (!upload.isComplete()) {
+            response.sendError(HttpServletResponse.SC_CONFLICT,
+                "Upload is incomplete: " + upload.getReceived() + " of " + upload.getSize() + " bytes received");
+            return;
+        }
+        // Un seul appel termine l'upload, même si le client le renvoie
+        if (!uploads.remove(upload.getId(), upload)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown upload: " + upload.getId());
+            return;
+        }
+
+        // Refus du store (taille, quota -> 413) ou erreur : l'upload est terminé, son fichier ne doit pas rester orphelin
+        FileUpload fileUpload;
+        try {
+            fileUpload = new FileUpload(upload.getFileName(), store.storeFile(upload.getFileName(), upload.finish()));
+        } catch (IOException | RuntimeException e) {
+            try {
+                upload.discard();
+            } catch (IOException | RuntimeException ignored) {
+                // déjà fermé ou supprimé par le store
+            }
+            throw e;
+        }
+
+        String url = request.getParameter("url");
+        if (url == null || url.isEmpty()) {
+            JsonObject result = new JsonObject();
+            result.addProperty("fileName", fileUpload.getFileName());
+            result.addProperty("size", fileUpload.getSize());
+            if (fileUpload.getStoredFile() != null) {
+                result.addProperty("key", fileUpload.getStoredFile().getKey());
+                result.addProperty("duplicate", fileUpload.getStoredFile().isDuplicate());
+            }
+            writeJson(response, result);
+            return;
+        }
+
+        dispatchRoute(url, fileUpload, request, response);
+    }
+
+    // La route reçoit le fichier comme s'il était arrivé en multipart, avec les autres paramètres de la requête
+    private void dispatchRoute(String url, FileUpload fileUpload, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        String path = url;
+        String queryString = null;
+        int queryIndex = url.indexOf('?');
+        if (queryIndex >= 0) {
+            path = url.substring(0, queryIndex);
+            queryString = url.substring(queryIndex + 1);
+        }
+        if (isChunkedUploadRequest(path) || BatchProcessor.isBatchRequest(path)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid completion url: " + path);
+            return;
+        }
+
+        Map<String, String[]> parameters = new LinkedHashMap<>(request.getParameterMap());
+        parameters.remove("url");
+        parameters.remove("param");
+        // Les paramètres écrits dans url remplacent ceux de la requête de complétion du même nom
+        Map<String, String[]> urlParameters = new LinkedHashMap<>();
+        try {
+            Utils.parseQueryString(queryString, urlParameters);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid query string: " + e.getMessage());
+            return;
+        }
+        parameters.putAll(urlParameters);
+
+        String parameterName = request.getParameter("param");
+        if (parameterName == null || parameterName.isEmpty()) parameterName = "file";
+
+        BatchRequestWrapper routeRequest = new BatchRequestWrapper(request, "POST", path, queryString, parameters);
+        routeRequest.setAttribute(attributeName(parameterName), fileUpload);
+        try {
+            dispatcher.dispatch(routeRequest, response);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error dispatching completed upload to " + path, e);
+        }
+    }
+
+    // Uploads en mémoire seulement (tous relus au démarrage) : un upload terminé ou abandonné ne revient jamais
+    private ChunkedUpload find(String id) {
+        return isValidId(id) ? uploads.get(id) : null;
+    }
+
+    private int countOpen(String owner) {
+        int count = 0;
+        for (ChunkedUpload upload : uploads.values()) {
+            if (owner.equals(upload.getOwner())) count++;
+        }
+        return count;
+    }
+
+    // Démarrage : uploads encore valides relus depuis leur index, le reste du répertoire est supprimé
+    // (index expirés ou illisibles, .part sans index laissés par un arrêt en cours de complétion, .idx.tmp)
+    private void restore() throws IOException {
+        long limit = expiryMillis > 0 ? System.currentTimeMillis() - expiryMillis : Long.MIN_VALUE;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(".idx")) continue;
+                String id = name.substring(0, name.length() - ".idx".length());
+                try {
+                    ChunkedUpload upload = isValidId(id) ? ChunkedUpload.load(id, directory) : null;
+                    if (upload != null && upload.getLastActivity() >= limit) {
+                        uploads.put(id, upload);
+                    } else if (upload != null) {
+                        upload.discard();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Discarding unreadable chunked upload " + id + ": " + e);
+                }
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int dot = name.indexOf('.');
+                if (dot < 0 || !uploads.containsKey(name.substring(0, dot)) || name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void expireStale() {
+        if (expiryMillis <= 0) return;
+        long limit = System.currentTimeMillis() - expiryMillis;
+        for (ChunkedUpload upload : uploads.values()) {
+            if (upload.getLastActivity() < limit && uploads.remove(upload.getId(), upload)) {
+                try {
+                    upload.discard();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static JsonObject status(ChunkedUpload upload) {
+        JsonObject status = new JsonObject();
+        status.addProperty("id", upload.getId());
+        status.addProperty("fileName", upload.getFileName());
+        status.addProperty("size", upload.getSize());
+        status.addProperty("received", upload.getReceived());
+        status.addProperty("complete", upload.isComplete());
+        JsonArray ranges = new JsonArray();
+        for (long[] range : upload.getRanges()) {
+            JsonArray bounds = new JsonArray();
+            bounds.add(range[0]);
+            bounds.add(range[1]);
+            ranges.add(bounds);
+        }
+        status.add("ranges", ranges);
+        return status;
+    }
+
+    private static void writeJson(HttpServletResponse response, JsonObject json) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(json.toString());
+    }
+
+    private static boolean isValidId(String id) {
+        try {
+            return UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static long parseLong(String value) {
+        if (value == null || value.trim().isEmpty()) return -1;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
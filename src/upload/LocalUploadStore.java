@@ -0,0 +1,199 @@
+package upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import exception.UploadQuotaException;
+
+// Stockage local adressé par contenu :
+// - le flux est écrit dans tmp/ tout en calculant son SHA-256, sans jamais être chargé en mémoire
+// - le fichier est ensuite déplacé atomiquement vers ab/cd/<sha256> (deux niveaux de 256 répertoires)
+// - un contenu déjà présent n'est pas stocké une deuxième fois
+public class LocalUploadStore implements UploadStore {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int COPY_BUFFER = 64 * 1024;
+
+    private final Path root;
+    private final Path temporary;
+    private final long maxFileSize;
+    private final long quotaBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    // maxFileSize / quotaBytes : 0 = pas de limite
+    public LocalUploadStore(Path root, long maxFileSize, long quotaBytes) throws IOException {
+        this.root = root;
+        this.temporary = root.resolve("tmp");
+        this.maxFileSize = maxFileSize;
+        this.quotaBytes = quotaBytes;
+        Files.createDirectories(temporary);
+        if (quotaBytes > 0) usedBytes.set(measureUsage());
+    }
+
+    @Override
+    public StoredFile store(String fileName, InputStream content, long declaredSize) throws IOException {
+        // Refus avant toute écriture quand la taille est annoncée
+        if (maxFileSize > 0 && declaredSize > maxFileSize) {
+            throw new UploadQuotaException("File " + fileName + " exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+
+        // Le quota n'est réservé qu'après la déduplication : un contenu déjà stocké n'ajoute rien au disque.
+        // Le fichier temporaire reste borné par maxFileSize
+        Path temp = Files.createTempFile(temporary, "upload-", ".part");
+        try {
+            MessageDigest digest = newDigest();
+            long size = copy(content, temp, digest, fileName);
+
+            String key = toHex(digest.digest());
+            Path target = pathFor(key);
+            if (Files.exists(target)) return new StoredFile(key, size, target, true);
+
+            reserve(size, fileName);
+            Files.createDirectories(target.getParent());
+            try {
+                moveAtomically(temp, target);
+            } catch (FileAlreadyExistsException e) {
+                // même contenu enregistré en parallèle
+                release(size);
+                return new StoredFile(key, size, target, true);
+            } catch (IOException | RuntimeException e) {
+                release(size);
+                throw e;
+            }
+            return new StoredFile(key, size, target, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Fichier déjà sur le disque : haché sur place puis déplacé, sans recopie
+    @Override
+    public StoredFile storeFile(String fileName, Path file) throws IOException {
+        long size = Files.size(file);
+        if (maxFileSize > 0 && size > maxFileSize) {
+            Files.deleteIfExists(file);
+            throw new UploadQuotaException("File " + fileName + " exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+
+        try {
+            MessageDigest digest = newDigest();
+            byte[] buffer = new byte[COPY_BUFFER];
+            try (InputStream content = Files.newInputStream(file)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+
+            String key = toHex(digest.digest());
+            Path target = pathFor(key);
+            if (Files.exists(target)) return new StoredFile(key, size, target, true);
+
+            reserve(size, fileName);
+            Files.createDirectories(target.getParent());
+            try {
+                moveAtomically(file, target);
+            } catch (FileAlreadyExistsException e) {
+                release(size);
+                return new StoredFile(key, size, target, true);
+            } catch (IOException | RuntimeException e) {
+                release(size);
+                throw e;
+            }
+            return new StoredFile(key, size, target, false);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public Path locate(String key) {
+        if (key == null || key.length() < 5 || !key.chars().allMatch(c -> Character.digit(c, 16) >= 0)) return null;
+        Path path = pathFor(key);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    // Copie en flux : la taille maximale est vérifiée au fil de l'eau (taille annoncée absente ou fausse)
+    private long copy(InputStream content, Path temp, MessageDigest digest, String fileName) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (maxFileSize > 0 && size > maxFileSize) {
+                    throw new UploadQuotaException("File " + fileName + " exceeds the maximum size of " + maxFileSize + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    private void reserve(long bytes, String fileName) throws UploadQuotaException {
+        if (quotaBytes <= 0 || bytes <= 0) return;
+        while (true) {
+            long used = usedBytes.get();
+            if (used + bytes > quotaBytes) {
+                throw new UploadQuotaException("Upload quota exceeded while storing " + fileName);
+            }
+            if (usedBytes.compareAndSet(used, used + bytes)) return;
+        }
+    }
+
+    private void release(long bytes) {
+        if (quotaBytes > 0 && bytes > 0) usedBytes.addAndGet(-bytes);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+        // Sur certains systèmes ATOMIC_MOVE remplace la cible au lieu d'échouer : même contenu, sans conséquence
+    }
+
+    private long measureUsage() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(path -> !path.startsWith(temporary) && Files.isRegularFile(path))
+                        .mapToLong(path -> path.toFile().length())
+                        .sum();
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,44 @@
+package upload;
+
+import java.nio.file.Path;
+
+// Résultat d'un enregistrement : clé de contenu (SHA-256), taille et emplacement
+public class StoredFile {
+    private final String key;
+    private final long size;
+    private final Path path;
+    private final boolean duplicate;
+
+    public StoredFile(String key, long size, Path path, boolean duplicate) {
+        this.key = key;
+        this.size = size;
+        this.path = path;
+        this.duplicate = duplicate;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // true si ce contenu était déjà stocké : rien n'a été ajouté sur le disque
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    @Override
+    public String toString() {
+        return "StoredFile{" +
+                "key='" + key + '\'' +
+                ", size=" + size +
+                ", duplicate=" + duplicate +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Stockage des fichiers reçus (FileUpload). Implémentation par défaut : LocalUploadStore ;
+// une autre classe peut être choisie dans web.xml (upload_store)
+public interface UploadStore {
+
+    // Enregistre le contenu ; declaredSize vaut -1 s'il est inconnu.
+    // Lève UploadQuotaException si une limite est dépassée, avant d'écrire quoi que ce soit quand c'est possible
+    StoredFile store(String fileName, InputStream content, long declaredSize) throws IOException;
+
+    // Enregistre un fichier déjà complet sur le disque (upload par morceaux) ; le fichier source peut être déplacé
+    default StoredFile storeFile(String fileName, Path file) throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            return store(fileName, content, Files.size(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Emplacement local d'un contenu enregistré, null s'il est inconnu
+    Path locate(String key);
+}
@@ -0,0 +1,53 @@
+package upload;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import other.Utils;
+
+// Création du stockage des uploads à partir de web.xml
+public class UploadStores {
+
+    // Paramètres web.xml :
+    // upload_store : classe UploadStore (constructeur (ServletConfig) ou sans argument), LocalUploadStore par défaut
+    // upload_directory : racine du stockage local (par défaut <répertoire temporaire du conteneur>/uploads)
+    // upload_max_file_size / upload_quota_bytes : taille maximale d'un fichier et du stockage (0 = sans limite)
+    public static UploadStore fromConfig(ServletConfig config) throws ServletException {
+        String className = config.getInitParameter("upload_store");
+        if (className != null && !className.trim().isEmpty()) {
+            return instantiate(className.trim(), config);
+        }
+
+        long maxFileSize = Utils.getInitParameter(config, "upload_max_file_size", 0L);
+        long quotaBytes = Utils.getInitParameter(config, "upload_quota_bytes", 0L);
+        Path directory = Utils.resolveDirectory(config, "upload_directory", "uploads");
+        try {
+            return new LocalUploadStore(directory, maxFileSize, quotaBytes);
+        } catch (IOException e) {
+            throw new ServletException("Unable to initialize upload directory: " + directory, e);
+        }
+    }
+
+    // Taille maximale d'une requête multipart, vérifiée sur Content-Length avant que le conteneur n'écrive les Parts
+    // sur le disque. Paramètre web.xml upload_max_request_size ; par défaut upload_max_file_size + 1 Mo de formulaire
+    // (0 = sans limite)
+    public static long maxRequestSize(ServletConfig config) throws ServletException {
+        long maxFileSize = Utils.getInitParameter(config, "upload_max_file_size", 0L);
+        return Utils.getInitParameter(config, "upload_max_request_size", maxFileSize > 0 ? maxFileSize + 1024 * 1024 : 0L);
+    }
+
+    private static UploadStore instantiate(String className, ServletConfig config) throws ServletException {
+        try {
+            Class<?> storeClass = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            try {
+                return (UploadStore) storeClass.getConstructor(ServletConfig.class).newInstance(config);
+            } catch (NoSuchMethodException e) {
+                return (UploadStore) storeClass.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new ServletException("Unable to create upload store: " + className, e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package view;
+
+import java.io.IOException;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import other.ModelView;
+
+// Rendu historique : forward vers la JSP via le ViewResolver
+public class JspViewRenderer implements ViewRenderer {
+    private final ViewResolver resolver;
+
+    public JspViewRenderer(ViewResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public boolean supports(String viewName) {
+        return true;
+    }
+
+    @Override
+    public boolean exists(String viewName) {
+        return resolver.exists(viewName);
+    }
+
+    @Override
+    public void render(ModelView modelView, HttpServletRequest request, HttpServletResponse response)
+        throws ServletException, IOException
+    {
+        resolver.render(modelView, request, response);
+    }
+}
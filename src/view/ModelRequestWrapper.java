@@ -0,0 +1,67 @@
+package view;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+// Expose les données d'une ModelView à la vue sans recopier chaque entrée en attribut de requête :
+// "model" donne la Map complète, et ${cle} reste résolu directement depuis les données
+public class ModelRequestWrapper extends HttpServletRequestWrapper {
+    public static final String MODEL_ATTRIBUTE = "model";
+
+    private final Map<String, Object> model;
+    private Set<String> overridden;
+
+    public ModelRequestWrapper(HttpServletRequest request, Map<String, Object> data) {
+        super(request);
+        this.model = Collections.unmodifiableMap(data);
+    }
+
+    public Map<String, Object> getModel() {
+        return model;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        // Même priorité qu'avant : les données de la ModelView masquent les attributs existants,
+        // sauf si la vue a elle-même redéfini l'attribut
+        if (overridden == null || !overridden.contains(name)) {
+            if (model.containsKey(name)) return model.get(name);
+            if (MODEL_ATTRIBUTE.equals(name)) return model;
+        }
+        return super.getAttribute(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        markOverridden(name);
+        super.setAttribute(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        markOverridden(name);
+        super.removeAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        Set<String> names = new HashSet<>(model.keySet());
+        names.add(MODEL_ATTRIBUTE);
+        Enumeration<String> requestNames = super.getAttributeNames();
+        while (requestNames.hasMoreElements()) {
+            names.add(requestNames.nextElement());
+        }
+        return Collections.enumeration(names);
+    }
+
+    private void markOverridden(String name) {
+        if (overridden == null) overridden = new HashSet<>();
+        overridden.add(name);
+    }
+}
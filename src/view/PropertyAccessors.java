@@ -0,0 +1,103 @@
+package view;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Accès aux propriétés des objets du modèle (Map, getter, champ), résolu une fois par classe et par nom
+public class PropertyAccessors {
+
+    public interface Accessor {
+        Object get(Object target) throws ReflectiveOperationException;
+    }
+
+    private static final Accessor MISSING = target -> null;
+    // Rattaché à la classe (ClassValue) : une classe rechargée à chaud est libérée avec son chargeur
+    private static final ClassValue<ConcurrentHashMap<String, Accessor>> CACHE = new ClassValue<ConcurrentHashMap<String, Accessor>>() {
+        @Override
+        protected ConcurrentHashMap<String, Accessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private PropertyAccessors() {}
+
+    public static Object get(Object target, String property) {
+        if (target == null) return null;
+        if (target instanceof Map) return ((Map<?, ?>) target).get(property);
+
+        Accessor accessor = CACHE.get(target.getClass())
+            .computeIfAbsent(property, name -> findAccessor(target.getClass(), name));
+        try {
+            return accessor.get(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to read property '" + property + "' of " + target.getClass().getName(), e);
+        }
+    }
+
+    private static Accessor findAccessor(Class<?> type, String name) {
+        if (type.isArray() && "length".equals(name)) return Array::getLength;
+        if (Collection.class.isAssignableFrom(type) && "size".equals(name)) return target -> ((Collection<?>) target).size();
+        if (name.isEmpty()) return MISSING;
+
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String getterName : new String[] { "get" + capitalized, "is" + capitalized, name }) {
+            Method getter = findPublicMethod(type, getterName);
+            if (getter != null) return getter::invoke;
+        }
+
+        // Les modèles du framework exposent souvent des champs privés sans getter
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(name);
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                // Champ d'une classe du JDK (HashMap$Node...) : module fermé, la propriété est absente
+                if (!field.trySetAccessible()) return MISSING;
+                return field::get;
+            } catch (NoSuchFieldException e) {
+                // on remonte à la classe parente
+            }
+        }
+        return MISSING;
+    }
+
+    // Méthode publique prise sur un type public de la hiérarchie (classe parente ou interface) : appelable sans
+    // setAccessible, même quand la classe réelle est une implémentation cachée du JDK (List.of, HashMap$Node)
+    private static Method findPublicMethod(Class<?> type, String methodName) {
+        try {
+            Method method = type.getMethod(methodName);
+            if (method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers())) return null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        return findAccessibleMethod(type, methodName);
+    }
+
+    private static Method findAccessibleMethod(Class<?> type, String methodName) {
+        if (type == null) return null;
+        if (isAccessible(type)) {
+            try {
+                return type.getMethod(methodName);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+        for (Class<?> contract : type.getInterfaces()) {
+            Method method = findAccessibleMethod(contract, methodName);
+            if (method != null) return method;
+        }
+        return findAccessibleMethod(type.getSuperclass(), methodName);
+    }
+
+    // Type public jusqu'à sa classe englobante, dans un paquet exporté
+    private static boolean isAccessible(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getDeclaringClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) return false;
+        }
+        return type.getModule().isExported(type.getPackageName());
+    }
+}
@@ -0,0 +1,279 @@
+package view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+// Template compilé : arbre de noeuds immuable, réutilisé par toutes les requêtes.
+// Les fragments statiques sont gardés en char[] et déjà encodés en UTF-8.
+public class Template {
+    private final String name;
+    private final Node[] nodes;
+    private final long lastModified;
+
+    Template(String name, Node[] nodes, long lastModified) {
+        this.name = name;
+        this.nodes = nodes;
+        this.lastModified = lastModified;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void render(Map<String, Object> model, Writer writer) throws IOException {
+        renderNodes(nodes, new Scope(model), new WriterOutput(writer));
+    }
+
+    public void render(Map<String, Object> model, OutputStream stream) throws IOException {
+        renderNodes(nodes, new Scope(model), new StreamOutput(stream));
+    }
+
+    static void renderNodes(Node[] nodes, Scope scope, Output out) throws IOException {
+        for (Node node : nodes) {
+            node.render(scope, out);
+        }
+    }
+
+    // Section : noeuds de l'arbre
+
+    interface Node {
+        void render(Scope scope, Output out) throws IOException;
+    }
+
+    static class TextNode implements Node {
+        final char[] chars;
+        final byte[] bytes;
+
+        TextNode(String text) {
+            this.chars = text.toCharArray();
+            this.bytes = text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void render(Scope scope, Output out) throws IOException {
+            out.writeStatic(this);
+        }
+    }
+
+    static class ValueNode implements Node {
+        final Expression expression;
+        final boolean escape;
+
+        ValueNode(Expression expression, boolean escape) {
+            this.expression = expression;
+            this.escape = escape;
+        }
+
+        @Override
+        public void render(Scope scope, Output out) throws IOException {
+            Object value = expression.evaluate(scope);
+            if (value == null) return;
+            String text = value.toString();
+            if (escape) out.writeEscaped(text);
+            else out.write(text);
+        }
+    }
+
+    static class IfNode implements Node {
+        final Expression condition;
+        final Node[] whenTrue;
+        final Node[] whenFalse;
+
+        IfNode(Expression condition, Node[] whenTrue, Node[] whenFalse) {
+            this.condition = condition;
+            this.whenTrue = whenTrue;
+            this.whenFalse = whenFalse;
+        }
+
+        @Override
+        public void render(Scope scope, Output out) throws IOException {
+            renderNodes(isTruthy(condition.evaluate(scope)) ? whenTrue : whenFalse, scope, out);
+        }
+    }
+
+    static class EachNode implements Node {
+        final Expression items;
+        final String variable;
+        final Node[] body;
+
+        EachNode(Expression items, String variable, Node[] body) {
+            this.items = items;
+            this.variable = variable;
+            this.body = body;
+        }
+
+        @Override
+        public void render(Scope scope, Output out) throws IOException {
+            Object value = items.evaluate(scope);
+            if (value == null) return;
+
+            // Un seul Scope par boucle, réaffecté à chaque itération
+            Scope loop = new Scope(scope, variable);
+            if (value instanceof Map) value = ((Map<?, ?>) value).values();
+
+            if (value instanceof Iterable) {
+                for (Object item : (Iterable<?>) value) {
+                    loop.value = item;
+                    renderNodes(body, loop, out);
+                }
+            } else if (value.getClass().isArray()) {
+                int length = Array.getLength(value);
+                for (int i = 0; i < length; i++) {
+                    loop.value = Array.get(value, i);
+                    renderNodes(body, loop, out);
+                }
+            } else {
+                loop.value = value;
+                renderNodes(body, loop, out);
+            }
+        }
+    }
+
+    static boolean isTruthy(Object value) {
+        if (value == null) return false;
+        if (value instanceof Boolean) return (Boolean) value;
+        if (value instanceof String) return !((String) value).isEmpty();
+        if (value instanceof Collection) return !((Collection<?>) value).isEmpty();
+        if (value instanceof Map) return !((Map<?, ?>) value).isEmpty();
+        if (value.getClass().isArray()) return Array.getLength(value) > 0;
+        return true;
+    }
+
+    // Section : expressions et portée
+
+    // Chemin "a.b.c" découpé une seule fois à la compilation
+    static class Expression {
+        final String[] path;
+
+        Expression(String source) {
+            this.path = source.trim().split("\\.");
+        }
+
+        Object evaluate(Scope scope) {
+            Object value = scope.lookup(path[0]);
+            for (int i = 1; i < path.length && value != null; i++) {
+                value = PropertyAccessors.get(value, path[i]);
+            }
+            return value;
+        }
+    }
+
+    static class Scope {
+        final Scope parent;
+        final String name;
+        final Map<String, Object> model;
+        Object value;
+
+        Scope(Map<String, Object> model) {
+            this.parent = null;
+            this.name = null;
+            this.model = model;
+        }
+
+        Scope(Scope parent, String name) {
+            this.parent = parent;
+            this.name = name;
+            this.model = null;
+        }
+
+        Object lookup(String key) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (scope.model != null) return scope.model.get(key);
+                if (scope.name.equals(key)) return scope.value;
+            }
+            return null;
+        }
+    }
+
+    // Section : sorties (Writer de la réponse ou flux d'octets)
+
+    interface Output {
+        void writeStatic(TextNode node) throws IOException;
+        void write(String text) throws IOException;
+        void writeEscaped(String text) throws IOException;
+    }
+
+    static class WriterOutput implements Output {
+        private final Writer writer;
+
+        WriterOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeStatic(TextNode node) throws IOException {
+            writer.write(node.chars);
+        }
+
+        @Override
+        public void write(String text) throws IOException {
+            writer.write(text);
+        }
+
+        // Écrit les plages sans caractère spécial d'un seul bloc, sans copie intermédiaire
+        @Override
+        public void writeEscaped(String text) throws IOException {
+            int start = 0;
+            for (int i = 0; i < text.length(); i++) {
+                String entity = entity(text.charAt(i));
+                if (entity != null) {
+                    writer.write(text, start, i - start);
+                    writer.write(entity);
+                    start = i + 1;
+                }
+            }
+            writer.write(text, start, text.length() - start);
+        }
+    }
+
+    static class StreamOutput implements Output {
+        private final OutputStream stream;
+        private final StringBuilder escaped = new StringBuilder();
+
+        StreamOutput(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public void writeStatic(TextNode node) throws IOException {
+            stream.write(node.bytes);
+        }
+
+        @Override
+        public void write(String text) throws IOException {
+            stream.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeEscaped(String text) throws IOException {
+            escaped.setLength(0);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                String entity = entity(c);
+                if (entity != null) escaped.append(entity);
+                else escaped.append(c);
+            }
+            write(escaped.toString());
+        }
+    }
+
+    static String entity(char c) {
+        switch (c) {
+            case '&': return "&amp;";
+            case '<': return "&lt;";
+            case '>': return "&gt;";
+            case '"': return "&quot;";
+            case '\'': return "&#39;";
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package view;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import jakarta.servlet.ServletException;
+
+import view.Template.EachNode;
+import view.Template.Expression;
+import view.Template.IfNode;
+import view.Template.Node;
+import view.Template.TextNode;
+import view.Template.ValueNode;
+
+// Compile la syntaxe des templates en arbre de noeuds :
+//   {{ expr }}                     valeur échappée HTML
+//   {{{ expr }}}                   valeur brute
+//   {{#each items as item}} ... {{/each}}
+//   {{#if expr}} ... {{else}} ... {{/if}}
+//   {{! commentaire }}
+public class TemplateCompiler {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // Bloc en cours de construction (#each / #if) avec ses deux branches
+    private static class Block {
+        final String type;
+        final String argument;
+        final List<Node> main = new ArrayList<>();
+        List<Node> alternative;
+
+        Block(String type, String argument) {
+            this.type = type;
+            this.argument = argument;
+        }
+
+        List<Node> current() {
+            return alternative != null ? alternative : main;
+        }
+    }
+
+    public Template compile(String name, String source, long lastModified) throws ServletException {
+        Deque<Block> blocks = new ArrayDeque<>();
+        blocks.push(new Block("root", null));
+        StringBuilder text = new StringBuilder();
+
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                text.append(source, position, source.length());
+                break;
+            }
+            text.append(source, position, open);
+
+            boolean raw = source.startsWith("{{{", open);
+            String close = raw ? "}}}" : CLOSE;
+            int tagStart = open + (raw ? 3 : 2);
+            int end = source.indexOf(close, tagStart);
+            if (end < 0) throw error(name, source, open, "unclosed tag");
+
+            String tag = source.substring(tagStart, end).trim();
+            position = end + close.length();
+
+            if (tag.startsWith("!")) continue;
+
+            flushText(text, blocks.peek().current());
+
+            if (raw) {
+                blocks.peek().current().add(new ValueNode(expression(name, source, open, tag), false));
+            } else if (tag.startsWith("#each ")) {
+                blocks.push(new Block("each", tag.substring(6).trim()));
+            } else if (tag.startsWith("#if ")) {
+                blocks.push(new Block("if", tag.substring(4).trim()));
+            } else if (tag.equals("else")) {
+                Block block = blocks.peek();
+                if (!"if".equals(block.type) || block.alternative != null) throw error(name, source, open, "unexpected {{else}}");
+                block.alternative = new ArrayList<>();
+            } else if (tag.startsWith("/")) {
+                // Le bloc racine ne se ferme pas
+                if (blocks.size() <= 1) throw error(name, source, open, "unexpected {{" + tag + "}}");
+                Block block = blocks.pop();
+                if (!tag.substring(1).trim().equals(block.type)) throw error(name, source, open, "unexpected {{" + tag + "}}");
+                blocks.peek().current().add(toNode(name, source, open, block));
+            } else {
+                blocks.peek().current().add(new ValueNode(expression(name, source, open, tag), true));
+            }
+        }
+
+        if (blocks.size() != 1) throw error(name, source, source.length(), "missing {{/" + blocks.peek().type + "}}");
+        Block root = blocks.pop();
+        flushText(text, root.main);
+        return new Template(name, root.main.toArray(new Node[0]), lastModified);
+    }
+
+    private Node toNode(String name, String source, int offset, Block block) throws ServletException {
+        Node[] main = block.main.toArray(new Node[0]);
+        if ("if".equals(block.type)) {
+            Node[] alternative = block.alternative == null ? new Node[0] : block.alternative.toArray(new Node[0]);
+            return new IfNode(expression(name, source, offset, block.argument), main, alternative);
+        }
+
+        // #each items as item (variable "item" par défaut)
+        String[] parts = block.argument.split("\\s+as\\s+");
+        String variable = parts.length > 1 ? parts[1].trim() : "item";
+        return new EachNode(expression(name, source, offset, parts[0]), variable, main);
+    }
+
+    private static void flushText(StringBuilder text, List<Node> target) {
+        if (text.length() == 0) return;
+        target.add(new TextNode(text.toString()));
+        text.setLength(0);
+    }
+
+    private static Expression expression(String name, String source, int offset, String value) throws ServletException {
+        if (value.trim().isEmpty()) throw error(name, source, offset, "empty expression");
+        // a..b ou a. : refusé ici plutôt qu'à chaque rendu
+        for (String segment : value.trim().split("\\.", -1)) {
+            if (segment.trim().isEmpty()) throw error(name, source, offset, "empty property in '" + value.trim() + "'");
+        }
+        return new Expression(value);
+    }
+
+    private static ServletException error(String name, String source, int offset, String message) {
+        int line = 1;
+        for (int i = 0; i < offset && i < source.length(); i++) {
+            if (source.charAt(i) == '\n') line++;
+        }
+        return new ServletException("Template syntax error in " + name + " at line " + line + ": " + message);
+    }
+}
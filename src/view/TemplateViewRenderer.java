@@ -0,0 +1,102 @@
+package view;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import other.ModelView;
+
+// Moteur de templates intégré : compile chaque template une seule fois et écrit directement dans la réponse,
+// sans forward ni compilateur JSP. Les vues concernées se terminent par template_suffix (".tpl" par défaut).
+public class TemplateViewRenderer implements ViewRenderer {
+    private final ServletContext context;
+    private final String prefix;
+    private final String suffix;
+    private final boolean devMode;
+    private final TemplateCompiler compiler = new TemplateCompiler();
+    private final ConcurrentHashMap<String, Template> templates = new ConcurrentHashMap<>();
+
+    public TemplateViewRenderer(ServletContext context, String prefix, String suffix, boolean devMode) {
+        this.context = context;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.devMode = devMode;
+    }
+
+    // Paramètres web.xml : template_suffix, template_dev_mode (rechargement à chaud, désactivé par défaut)
+    public static TemplateViewRenderer fromConfig(ServletConfig config, ViewResolver resolver) {
+        String suffix = config.getInitParameter("template_suffix");
+        return new TemplateViewRenderer(config.getServletContext(), resolver.getPrefix(),
+                                        suffix == null ? ".tpl" : suffix,
+                                        Boolean.parseBoolean(config.getInitParameter("template_dev_mode")));
+    }
+
+    @Override
+    public boolean supports(String viewName) {
+        return viewName != null && viewName.endsWith(suffix);
+    }
+
+    @Override
+    public boolean exists(String viewName) throws ServletException {
+        try {
+            if (context.getResource(prefix + viewName) == null) return false;
+            // Compilation au démarrage : une erreur de syntaxe arrête init() avec son propre message
+            getTemplate(viewName);
+            return true;
+        } catch (MalformedURLException e) {
+            return false;
+        } catch (IOException e) {
+            throw new ServletException("Unable to read template " + prefix + viewName, e);
+        }
+    }
+
+    @Override
+    public void render(ModelView modelView, HttpServletRequest request, HttpServletResponse response)
+        throws ServletException, IOException
+    {
+        Template template = getTemplate(modelView.getUrl());
+        if (response.getContentType() == null) {
+            response.setContentType("text/html;charset=UTF-8");
+        }
+
+        try {
+            template.render(modelView.getData(), response.getOutputStream());
+        } catch (IllegalStateException e) {
+            // getWriter() a déjà été appelé sur cette réponse
+            template.render(modelView.getData(), response.getWriter());
+        }
+    }
+
+    private Template getTemplate(String viewName) throws ServletException, IOException {
+        Template template = templates.get(viewName);
+        if (template != null && !devMode) return template;
+
+        URL resource = context.getResource(prefix + viewName);
+        if (resource == null) throw new ServletException("Template not found: " + prefix + viewName);
+
+        URLConnection connection = resource.openConnection();
+        long lastModified = connection.getLastModified();
+        if (template != null && template.getLastModified() == lastModified) {
+            connection.getInputStream().close();
+            return template;
+        }
+
+        String source;
+        try (InputStream input = connection.getInputStream()) {
+            source = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        template = compiler.compile(viewName, source, lastModified);
+        templates.put(viewName, template);
+        return template;
+    }
+}
@@ -0,0 +1,25 @@
+package view;
+
+import java.io.IOException;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import other.ModelView;
+
+// SPI de rendu des ModelView : JSP (forward) par défaut, moteur de templates intégré,
+// ou toute implémentation déclarée dans web.xml (view_renderers)
+public interface ViewRenderer {
+
+    // Le renderer prend-il en charge cette vue ?
+    boolean supports(String viewName);
+
+    // Vérification au démarrage de l'existence de la vue
+    default boolean exists(String viewName) throws ServletException {
+        return true;
+    }
+
+    void render(ModelView modelView, HttpServletRequest request, HttpServletResponse response)
+        throws ServletException, IOException;
+}
@@ -0,0 +1,77 @@
+package view;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import other.ModelView;
+
+// Liste ordonnée des ViewRenderer : ceux de web.xml d'abord, puis les templates, puis la JSP en dernier recours
+public class ViewRendererRegistry {
+    private final ViewRenderer[] renderers;
+
+    public ViewRendererRegistry(List<ViewRenderer> renderers) {
+        this.renderers = renderers.toArray(new ViewRenderer[0]);
+    }
+
+    // Paramètre web.xml : view_renderers (noms de classes séparés par des virgules,
+    // constructeur (ServletConfig) ou sans argument)
+    public static ViewRendererRegistry fromConfig(ServletConfig config) throws ServletException {
+        ViewResolver resolver = ViewResolver.fromConfig(config);
+        List<ViewRenderer> renderers = new ArrayList<>();
+
+        String customRenderers = config.getInitParameter("view_renderers");
+        if (customRenderers != null) {
+            for (String className : customRenderers.split(",")) {
+                if (!className.trim().isEmpty()) renderers.add(instantiate(className.trim(), config));
+            }
+        }
+
+        renderers.add(TemplateViewRenderer.fromConfig(config, resolver));
+        renderers.add(new JspViewRenderer(resolver));
+        return new ViewRendererRegistry(renderers);
+    }
+
+    private static ViewRenderer instantiate(String className, ServletConfig config) throws ServletException {
+        try {
+            Class<?> rendererClass = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            try {
+                return (ViewRenderer) rendererClass.getConstructor(ServletConfig.class).newInstance(config);
+            } catch (NoSuchMethodException e) {
+                return (ViewRenderer) rendererClass.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new ServletException("Unable to create view renderer: " + className, e);
+        }
+    }
+
+    public ViewRenderer find(String viewName) throws ServletException {
+        for (ViewRenderer renderer : renderers) {
+            if (renderer.supports(viewName)) return renderer;
+        }
+        throw new ServletException("No view renderer for view: " + viewName);
+    }
+
+    // Vérification au démarrage : toutes les vues référencées doivent exister
+    public void checkViews(Collection<String> viewNames) throws ServletException {
+        List<String> missing = new ArrayList<>();
+        for (String viewName : viewNames) {
+            if (!find(viewName).exists(viewName)) missing.add(viewName);
+        }
+        if (!missing.isEmpty()) {
+            throw new ServletException("Referenced views not found: " + missing);
+        }
+    }
+
+    public void render(ModelView modelView, HttpServletRequest request, HttpServletResponse response)
+        throws ServletException, IOException
+    {
+        find(modelView.getUrl()).render(modelView, request, response);
+    }
+}
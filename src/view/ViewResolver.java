@@ -0,0 +1,76 @@
+package view;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import other.ModelView;
+
+// Résolution des vues : nom de vue -> prefix + nom + suffix, RequestDispatcher mis en cache par vue
+public class ViewResolver {
+    private final ServletContext context;
+    private final String prefix;
+    private final String suffix;
+    private final ConcurrentHashMap<String, RequestDispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    public ViewResolver(ServletContext context, String prefix, String suffix) {
+        this.context = context;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    // Paramètres web.xml : view_prefix ("/" par défaut), view_suffix ("" par défaut)
+    public static ViewResolver fromConfig(ServletConfig config) {
+        String prefix = config.getInitParameter("view_prefix");
+        String suffix = config.getInitParameter("view_suffix");
+        return new ViewResolver(config.getServletContext(),
+                                prefix == null ? "/" : prefix,
+                                suffix == null ? "" : suffix);
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getPath(String viewName) {
+        return prefix + viewName + suffix;
+    }
+
+    // Le RequestDispatcher obtenu depuis le ServletContext est réutilisable entre les requêtes
+    public RequestDispatcher resolve(String viewName) {
+        RequestDispatcher dispatcher = dispatchers.get(viewName);
+        if (dispatcher == null) {
+            dispatcher = context.getRequestDispatcher(getPath(viewName));
+            if (dispatcher != null) {
+                RequestDispatcher existing = dispatchers.putIfAbsent(viewName, dispatcher);
+                if (existing != null) dispatcher = existing;
+            }
+        }
+        return dispatcher;
+    }
+
+    public boolean exists(String viewName) {
+        try {
+            return context.getResource(getPath(viewName)) != null;
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    public void render(ModelView modelView, HttpServletRequest request, HttpServletResponse response)
+        throws ServletException, IOException
+    {
+        RequestDispatcher dispatcher = resolve(modelView.getUrl());
+        if (dispatcher == null) {
+            throw new ServletException("View not found: " + getPath(modelView.getUrl()));
+        }
+        dispatcher.forward(new ModelRequestWrapper(request, modelView.getData()), response);
+    }
+}
@@ -0,0 +1,275 @@
+package warmup;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import annotation.WarmUp;
+import batch.BatchProcessor;
+import batch.BatchRequestWrapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import other.Handler;
+import other.HttpVerb;
+import other.Mapping;
+import other.RouteRegistry;
+import other.Utils;
+
+// Mise en température au démarrage : liaison des paramètres et validation de chaque route, puis appel complet
+// des routes GET marquées @WarmUp, avec des requêtes synthétiques, pour que le chargement des classes,
+// la réflexion et la compilation JIT soient faits avant les premiers utilisateurs.
+// Paramètres web.xml : warmup_iterations (0 par défaut : désactivé), warmup_background (false : init() attend la fin).
+// GET /__ready répond 200 une fois la mise en température terminée, 503 avant (sonde de disponibilité)
+public class WarmUpRunner {
+    public static final String READY_URI = "/__ready";
+    // Attribut du ServletContext : Boolean.TRUE une fois prêt
+    public static final String READY_ATTRIBUTE = "framework.ready";
+    // Attribut des requêtes synthétiques (Boolean.TRUE) : ni limitation de débit ni délestage, elles viennent toutes
+    // de 127.0.0.1 et videraient le seau de cette adresse ou prendraient la place de vraies requêtes
+    public static final String REQUEST_ATTRIBUTE = "framework.warmUp";
+
+    private final ServletContext context;
+    private final RouteRegistry routeRegistry;
+    private final BatchProcessor.ItemDispatcher dispatcher;
+    private final int iterations;
+    private final boolean background;
+    private volatile boolean ready;
+
+    public WarmUpRunner(ServletContext context, RouteRegistry routeRegistry, BatchProcessor.ItemDispatcher dispatcher,
+                        int iterations, boolean background) {
+        this.context = context;
+        this.routeRegistry = routeRegistry;
+        this.dispatcher = dispatcher;
+        this.iterations = iterations;
+        this.background = background;
+    }
+
+    // null quand la mise en température n'est pas demandée
+    public static WarmUpRunner fromConfig(ServletConfig config, RouteRegistry routeRegistry,
+                                          BatchProcessor.ItemDispatcher dispatcher) throws ServletException {
+        int iterations = (int) Utils.getInitParameter(config, "warmup_iterations", 0L);
+        if (iterations <= 0) return null;
+        return new WarmUpRunner(config.getServletContext(), routeRegistry, dispatcher, iterations,
+            Boolean.parseBoolean(config.getInitParameter("warmup_background")));
+    }
+
+    public static boolean isWarmUpRequest(HttpServletRequest request) {
+        return request.getAttribute(REQUEST_ATTRIBUTE) == Boolean.TRUE;
+    }
+
+    public static boolean isReadinessRequest(String relativeURI) {
+        return READY_URI.equals(relativeURI);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Fin de init() : exécution sur place, ou dans un thread pendant que le conteneur accepte déjà des requêtes.
+    // onReady est appelé une fois la mise en température terminée
+    public void start(Runnable onReady) {
+        context.setAttribute(READY_ATTRIBUTE, Boolean.FALSE);
+        Runnable task = () -> {
+            run();
+            onReady.run();
+        };
+        if (!background) {
+            task.run();
+            return;
+        }
+        Thread thread = new Thread(task, "framework-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        HttpServletRequest base = baseRequest();
+        int routes = 0;
+        int calls = 0;
+        int failures = 0;
+
+        try {
+            for (int i = 0; i < iterations; i++) {
+                for (Map.Entry<String, Mapping> route : routeRegistry.snapshot().entrySet()) {
+                    for (HttpVerb verb : HttpVerb.values()) {
+                        Handler handler = route.getValue().getHandler(verb);
+                        // HEAD se rabat sur GET : déjà couvert
+                        if (handler == null || verb == HttpVerb.HEAD) continue;
+                        if (i == 0) routes++;
+
+                        WarmUp warmUp = handler.getMethod().getAnnotation(WarmUp.class);
+                        Map<String, String[]> parameters = new HashMap<>();
+                        String queryString = warmUp != null ? warmUp.value() : "";
+                        Utils.parseQueryString(queryString, parameters);
+                        HttpServletRequest request = new BatchRequestWrapper(base, verb.name(), route.getKey(),
+                                                                             queryString, parameters);
+
+                        // Liaison et validation : une requête sans paramètre donne les valeurs par défaut
+                        // et, le plus souvent, une erreur de validation attendue
+                        try {
+                            Utils.getMethodParams(handler.getMethod(), request);
+                        } catch (Exception e) {
+                            // attendu pour une requête synthétique
+                        }
+                        calls++;
+
+                        if (warmUp != null && verb == HttpVerb.GET) {
+                            HttpServletResponse response = discardingResponse();
+                            try {
+                                dispatcher.dispatch(request, response);
+                                if (response.getStatus() >= 500) failures++;
+                            } catch (Exception e) {
+                                failures++;
+                            }
+                            calls++;
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Warm-up interrupted: " + e.getMessage());
+        } finally {
+            ready = true;
+            context.setAttribute(READY_ATTRIBUTE, Boolean.TRUE);
+            System.err.println("Warm-up done: " + routes + " routes, " + iterations + " iterations, " + calls
+                + " calls (" + failures + " failed) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    // Requête de base des requêtes synthétiques : ni session, ni en-têtes, ni corps ; seul attribut, REQUEST_ATTRIBUTE
+    private HttpServletRequest baseRequest() {
+        return (HttpServletRequest) Proxy.newProxyInstance(WarmUpRunner.class.getClassLoader(),
+            new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getContextPath":
+                        return context.getContextPath();
+                    case "getServletContext":
+                        return context;
+                    case "getScheme":
+                        return "http";
+                    case "getServerName":
+                    case "getLocalName":
+                        return "localhost";
+                    case "getServerPort":
+                    case "getLocalPort":
+                        return 80;
+                    case "getRemoteAddr":
+                    case "getLocalAddr":
+                        return "127.0.0.1";
+                    case "getProtocol":
+                        return "HTTP/1.1";
+                    case "getCharacterEncoding":
+                        return "UTF-8";
+                    case "getLocale":
+                        return Locale.getDefault();
+                    case "getLocales":
+                        return Collections.enumeration(List.of(Locale.getDefault()));
+                    case "getDispatcherType":
+                        return DispatcherType.REQUEST;
+                    case "getAttribute":
+                        return REQUEST_ATTRIBUTE.equals(args[0]) ? Boolean.TRUE : null;
+                    case "getContentLength":
+                        return -1;
+                    case "getContentLengthLong":
+                    case "getDateHeader":
+                        return -1L;
+                    case "getIntHeader":
+                        return -1;
+                    case "getHeaders":
+                    case "getHeaderNames":
+                    case "getAttributeNames":
+                    case "getParameterNames":
+                        return Collections.emptyEnumeration();
+                    case "getParameterMap":
+                        return Collections.emptyMap();
+                    case "getParts":
+                        return Collections.emptyList();
+                    case "getReader":
+                        return new BufferedReader(new StringReader(""));
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "WarmUpRequest";
+                    default:
+                        return emptyValue(method.getReturnType());
+                }
+            });
+    }
+
+    // Réponse dont le contenu est jeté
+    private static HttpServletResponse discardingResponse() {
+        int[] status = { HttpServletResponse.SC_OK };
+        PrintWriter writer = new PrintWriter(Writer.nullWriter());
+        ServletOutputStream output = new ServletOutputStream() {
+            @Override
+            public void write(int b) {}
+
+            @Override
+            public void write(byte[] b, int off, int len) {}
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {}
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(WarmUpRunner.class.getClassLoader(),
+            new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getWriter":
+                        return writer;
+                    case "getOutputStream":
+                        return output;
+                    case "setStatus":
+                    case "sendError":
+                        status[0] = (Integer) args[0];
+                        return null;
+                    case "getStatus":
+                        return status[0];
+                    case "getCharacterEncoding":
+                        return "UTF-8";
+                    case "getLocale":
+                        return Locale.getDefault();
+                    case "getHeaderNames":
+                    case "getHeaders":
+                        return Collections.emptyList();
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return emptyValue(method.getReturnType());
+                }
+            });
+    }
+
+    private static Object emptyValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == long.class) return 0L;
+        if (type == int.class) return 0;
+        if (type == char.class) return '\0';
+        if (type == double.class) return 0.0d;
+        if (type == float.class) return 0.0f;
+        if (type == short.class) return (short) 0;
+        return (byte) 0;
+    }
+}
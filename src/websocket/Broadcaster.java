@@ -0,0 +1,58 @@
+package websocket;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import other.Utils;
+
+// Diffusion vers toutes les connexions ouvertes d'un point d'entrée @WebSocket.
+// Le message est sérialisé une seule fois pour tous les destinataires ; chaque connexion garde sa propre file bornée.
+// Disponible dans le ServletContext (CONTEXT_ATTRIBUTE) et injecté dans les champs de type Broadcaster des Controllers
+public class Broadcaster {
+    public static final String CONTEXT_ATTRIBUTE = "framework.broadcaster";
+
+    private final Map<String, Set<WebSocketConnection>> connections = new ConcurrentHashMap<>();
+
+    // Nombre de connexions qui ont accepté le message
+    public int broadcast(String path, Object message) {
+        Set<WebSocketConnection> targets = connections.get(path);
+        if (targets == null || targets.isEmpty()) return 0;
+
+        String text = toMessage(message);
+        int delivered = 0;
+        for (WebSocketConnection connection : targets) {
+            if (connection.send(text)) delivered++;
+        }
+        return delivered;
+    }
+
+    public int getConnectionCount(String path) {
+        Set<WebSocketConnection> targets = connections.get(path);
+        return targets == null ? 0 : targets.size();
+    }
+
+    void add(WebSocketConnection connection) {
+        connections.computeIfAbsent(connection.getPath(), path -> ConcurrentHashMap.newKeySet()).add(connection);
+    }
+
+    void remove(WebSocketConnection connection) {
+        Set<WebSocketConnection> targets = connections.get(connection.getPath());
+        if (targets != null) targets.remove(connection);
+    }
+
+    // Fermeture de toutes les connexions (arrêt de l'application)
+    public void closeAll() {
+        for (Set<WebSocketConnection> targets : connections.values()) {
+            for (WebSocketConnection connection : targets) {
+                connection.close();
+            }
+        }
+        connections.clear();
+    }
+
+    static String toMessage(Object value) {
+        if (value instanceof String) return (String) value;
+        return Utils.GSON.toJson(value);
+    }
+}
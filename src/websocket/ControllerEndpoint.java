@@ -0,0 +1,119 @@
+package websocket;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import other.MySession;
+import other.Utils;
+import session.SessionContext;
+import session.SessionManager;
+
+// Une instance par connexion (comme un Controller par requête HTTP) : le Controller est créé à l'ouverture,
+// puis chaque message texte appelle la méthode @WebSocket. Les messages d'une connexion arrivent un par un
+class ControllerEndpoint extends Endpoint {
+    // Clés des userProperties remplies pendant la poignée de main
+    static final String REQUEST_PROPERTY = "framework.websocket.request";
+    static final String SESSION_PROPERTY = "framework.websocket.session";
+    static final String REFUSAL_PROPERTY = "framework.websocket.refusal";
+
+    private final Class<?> controllerClass;
+    private final Method method;
+    private final String path;
+    private final Broadcaster broadcaster;
+    private final SessionManager sessionManager;
+    private final int queueSize;
+
+    private HttpServletRequest request;
+    private SessionContext sessionContext;
+    private Object controller;
+    private WebSocketConnection connection;
+
+    ControllerEndpoint(Class<?> controllerClass, Method method, String path, Broadcaster broadcaster,
+                       SessionManager sessionManager, int queueSize) {
+        this.controllerClass = controllerClass;
+        this.method = method;
+        this.path = path;
+        this.broadcaster = broadcaster;
+        this.sessionManager = sessionManager;
+        this.queueSize = queueSize;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        Object refusal = config.getUserProperties().remove(REFUSAL_PROPERTY);
+        request = (HttpServletRequest) config.getUserProperties().remove(REQUEST_PROPERTY);
+        sessionContext = (SessionContext) config.getUserProperties().remove(SESSION_PROPERTY);
+        if (refusal != null || request == null) {
+            closeQuietly(session, CloseReason.CloseCodes.VIOLATED_POLICY, refusal != null ? refusal.toString() : "Forbidden");
+            return;
+        }
+
+        try {
+            controller = controllerClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            e.printStackTrace();
+            closeQuietly(session, CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Unable to create controller");
+            return;
+        }
+
+        connection = new WebSocketConnection(session, path, queueSize, () -> broadcaster.remove(connection));
+        broadcaster.add(connection);
+        session.addMessageHandler(String.class, (MessageHandler.Whole<String>) this::onMessage);
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        if (connection != null) broadcaster.remove(connection);
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        if (connection != null) connection.close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Error");
+    }
+
+    private void onMessage(String message) {
+        try {
+            // Nouvelle MySession par message : pas de valeurs périmées gardées d'un message à l'autre
+            request.removeAttribute(MySession.REQUEST_ATTRIBUTE);
+            Utils.initializeControllerFields(controller, request);
+            Object result = method.invoke(controller, resolveParameters(message));
+            if (result != null) connection.send(Broadcaster.toMessage(result));
+        } catch (InvocationTargetException e) {
+            e.getCause().printStackTrace();
+            connection.close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Handler failed");
+        } catch (IllegalAccessException | RuntimeException e) {
+            e.printStackTrace();
+            connection.close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Handler failed");
+        } finally {
+            // Écriture des attributs de session modifiés par ce message
+            if (sessionContext != null) sessionManager.end(sessionContext);
+        }
+    }
+
+    private Object[] resolveParameters(String message) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == String.class) values[i] = message;
+            else if (types[i] == WebSocketConnection.class) values[i] = connection;
+            else if (types[i] == MySession.class) values[i] = MySession.of(request);
+            else if (types[i] == Broadcaster.class) values[i] = broadcaster;
+        }
+        return values;
+    }
+
+    private static void closeQuietly(Session session, CloseReason.CloseCode code, String reason) {
+        try {
+            session.close(new CloseReason(code, reason));
+        } catch (IOException e) {
+            // connexion déjà perdue
+        }
+    }
+}
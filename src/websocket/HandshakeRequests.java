@@ -0,0 +1,169 @@
+package websocket;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.server.HandshakeRequest;
+
+// Vue HttpServletRequest de la requête d'ouverture WebSocket, pour réutiliser telles quelles
+// l'authentification (@Authentication) et MySession. Seules les méthodes utiles sont fournies (Proxy),
+// les autres renvoient une valeur vide
+class HandshakeRequests {
+
+    static HttpServletRequest toServletRequest(HandshakeRequest handshake, ServletContext context) {
+        URI uri = handshake.getRequestURI();
+        HttpSession httpSession = handshake.getHttpSession() instanceof HttpSession
+            ? (HttpSession) handshake.getHttpSession() : null;
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(handshake.getHeaders());
+        Map<String, String[]> parameters = new HashMap<>();
+        handshake.getParameterMap().forEach((name, values) -> parameters.put(name, values.toArray(new String[0])));
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        Cookie[] cookies = parseCookies(headers.get("Cookie"));
+
+        return (HttpServletRequest) Proxy.newProxyInstance(HandshakeRequests.class.getClassLoader(),
+            new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getSession":
+                        // Le conteneur ne peut pas créer de HttpSession pendant l'ouverture : écrire dans MySession
+                        // suppose une session ouverte avant par une requête HTTP (ou session_store)
+                        if (httpSession == null && (args == null || (Boolean) args[0])) {
+                            throw new IllegalStateException("No HTTP session for WebSocket " + uri.getRawPath()
+                                + ": open the session with an HTTP request before connecting, or configure session_store");
+                        }
+                        return httpSession;
+                    case "getCookies":
+                        return cookies;
+                    case "getHeader": {
+                        List<String> values = headers.get((String) args[0]);
+                        return values == null || values.isEmpty() ? null : values.get(0);
+                    }
+                    case "getHeaders": {
+                        List<String> values = headers.get((String) args[0]);
+                        return Collections.enumeration(values == null ? List.of() : values);
+                    }
+                    case "getHeaderNames":
+                        return Collections.enumeration(headers.keySet());
+                    case "getAttribute":
+                        return attributes.get((String) args[0]);
+                    case "setAttribute":
+                        if (args[1] == null) attributes.remove((String) args[0]);
+                        else attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "removeAttribute":
+                        attributes.remove((String) args[0]);
+                        return null;
+                    case "getAttributeNames":
+                        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+                    case "getParameter": {
+                        String[] values = parameters.get((String) args[0]);
+                        return values == null || values.length == 0 ? null : values[0];
+                    }
+                    case "getParameterValues":
+                        return parameters.get((String) args[0]);
+                    case "getParameterMap":
+                        return Collections.unmodifiableMap(parameters);
+                    case "getParameterNames":
+                        return Collections.enumeration(parameters.keySet());
+                    case "getMethod":
+                        return "GET";
+                    case "getRequestURI":
+                        return uri.getRawPath();
+                    case "getQueryString":
+                        return handshake.getQueryString();
+                    case "getContextPath":
+                        return context.getContextPath();
+                    case "getServletContext":
+                        return context;
+                    case "isSecure":
+                        return "wss".equals(uri.getScheme()) || "https".equals(uri.getScheme());
+                    case "getUserPrincipal":
+                        return handshake.getUserPrincipal();
+                    case "isUserInRole":
+                        return handshake.isUserInRole((String) args[0]);
+                    case "toString":
+                        return "HandshakeRequest[" + uri + "]";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return emptyValue(method.getReturnType());
+                }
+            });
+    }
+
+    // Cookies posés pendant l'ouverture (nouvelle session) : ajoutés à la réponse de la poignée de main
+    static HttpServletResponse toServletResponse(HandshakeResponse handshake) {
+        return (HttpServletResponse) Proxy.newProxyInstance(HandshakeRequests.class.getClassLoader(),
+            new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "addCookie": {
+                        Cookie cookie = (Cookie) args[0];
+                        StringBuilder header = new StringBuilder(cookie.getName()).append('=').append(cookie.getValue());
+                        if (cookie.getPath() != null) header.append("; Path=").append(cookie.getPath());
+                        if (cookie.getMaxAge() >= 0) header.append("; Max-Age=").append(cookie.getMaxAge());
+                        if (cookie.getSecure()) header.append("; Secure");
+                        if (cookie.isHttpOnly()) header.append("; HttpOnly");
+                        handshake.getHeaders().computeIfAbsent("Set-Cookie", name -> new ArrayList<>()).add(header.toString());
+                        return null;
+                    }
+                    case "isCommitted":
+                        return false;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return emptyValue(method.getReturnType());
+                }
+            });
+    }
+
+    private static Cookie[] parseCookies(List<String> headers) {
+        if (headers == null) return null;
+        List<Cookie> cookies = new ArrayList<>();
+        for (String header : headers) {
+            for (String pair : header.split(";")) {
+                int equalsIndex = pair.indexOf('=');
+                if (equalsIndex <= 0) continue;
+                String name = pair.substring(0, equalsIndex).trim();
+                String value = pair.substring(equalsIndex + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                try {
+                    cookies.add(new Cookie(name, value));
+                } catch (IllegalArgumentException e) {
+                    // nom de cookie invalide : ignoré comme le ferait le conteneur
+                }
+            }
+        }
+        return cookies.isEmpty() ? null : cookies.toArray(new Cookie[0]);
+    }
+
+    private static Object emptyValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == long.class) return 0L;
+        if (type == int.class) return 0;
+        if (type == char.class) return '\0';
+        if (type == double.class) return 0.0d;
+        if (type == float.class) return 0.0f;
+        if (type == short.class) return (short) 0;
+        return (byte) 0;
+    }
+}
@@ -0,0 +1,103 @@
+package websocket;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+
+// Connexion WebSocket ouverte sur un point d'entrée @WebSocket.
+// Les envois passent par une file bornée, un message à la fois (envoi asynchrone) :
+// un client trop lent qui laisse la file se remplir est déconnecté au lieu d'accumuler des messages en mémoire
+public class WebSocketConnection {
+    private final Session session;
+    private final String path;
+    private final ArrayBlockingQueue<String> queue;
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Runnable onClose;
+
+    WebSocketConnection(Session session, String path, int queueSize, Runnable onClose) {
+        this.session = session;
+        this.path = path;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.onClose = onClose;
+    }
+
+    public String getId() {
+        return session.getId();
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isOpen() {
+        return !closed.get() && session.isOpen();
+    }
+
+    // Valeurs gardées pour la durée de la connexion
+    public Map<String, Object> getAttributes() {
+        return session.getUserProperties();
+    }
+
+    // false si le message n'a pas pu être mis en file (connexion fermée, ou client trop lent : connexion coupée)
+    public boolean send(String message) {
+        if (!isOpen()) return false;
+        if (!queue.offer(message)) {
+            close(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Client is too slow");
+            return false;
+        }
+        sendNext();
+        return true;
+    }
+
+    public boolean sendJson(Object value) {
+        return send(Broadcaster.toMessage(value));
+    }
+
+    public void close() {
+        close(CloseReason.CloseCodes.NORMAL_CLOSURE, "");
+    }
+
+    void close(CloseReason.CloseCode code, String reason) {
+        if (!closed.compareAndSet(false, true)) return;
+        queue.clear();
+        onClose.run();
+        try {
+            if (session.isOpen()) session.close(new CloseReason(code, reason));
+        } catch (IOException e) {
+            // connexion déjà perdue
+        }
+    }
+
+    // Un seul envoi asynchrone en cours : le suivant part depuis le rappel de fin d'envoi
+    private void sendNext() {
+        while (!queue.isEmpty() && sending.compareAndSet(false, true)) {
+            String next = queue.poll();
+            if (next == null) {
+                sending.set(false);
+                continue;
+            }
+            try {
+                session.getAsyncRemote().sendText(next, this::sent);
+            } catch (RuntimeException e) {
+                sending.set(false);
+                close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Send failed");
+            }
+            return;
+        }
+    }
+
+    private void sent(SendResult result) {
+        sending.set(false);
+        if (!result.isOK()) {
+            close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Send failed");
+            return;
+        }
+        sendNext();
+    }
+}
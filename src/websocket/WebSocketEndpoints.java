@@ -0,0 +1,184 @@
+package websocket;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import annotation.methods.WebSocket;
+import auth.AuthenticationInterceptor;
+import exception.AuthenticationException;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.server.HandshakeRequest;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import other.MySession;
+import other.Utils;
+import session.SessionContext;
+import session.SessionManager;
+
+// Enregistrement des méthodes @WebSocket des Controllers auprès du conteneur (API Jakarta WebSocket), au démarrage.
+// Paramètres web.xml : websocket_queue_size (messages en attente par connexion avant déconnexion, 64 par défaut),
+// websocket_allowed_origins (origines acceptées séparées par des virgules ; vide = même origine que l'en-tête Host).
+// Le conteneur n'accepte de nouveaux points d'entrée que pendant le démarrage : le FrontController doit avoir load-on-startup
+public class WebSocketEndpoints {
+
+    public static void register(ServletConfig config, List<Class<?>> controllers, Broadcaster broadcaster,
+                                SessionManager sessionManager) throws ServletException {
+        Map<String, Method> endpoints = new HashMap<>();
+        Map<String, Class<?>> owners = new HashMap<>();
+        for (Class<?> controller : controllers) {
+            for (Method method : controller.getDeclaredMethods()) {
+                WebSocket webSocket = method.getAnnotation(WebSocket.class);
+                if (webSocket == null) continue;
+                String path = webSocket.value();
+                if (!path.startsWith("/")) {
+                    throw new ServletException("@WebSocket path must start with '/': " + path
+                        + " on " + controller.getName() + "." + method.getName());
+                }
+                if (endpoints.containsKey(path)) {
+                    throw new ServletException("Duplicate @WebSocket path " + path + " on " + controller.getName()
+                        + "." + method.getName() + " and " + owners.get(path).getName() + "." + endpoints.get(path).getName());
+                }
+                checkParameters(controller, method);
+                method.setAccessible(true);
+                endpoints.put(path, method);
+                owners.put(path, controller);
+            }
+        }
+        if (endpoints.isEmpty()) return;
+
+        ServletContext context = config.getServletContext();
+        Object container = context.getAttribute(ServerContainer.class.getName());
+        if (!(container instanceof ServerContainer)) {
+            throw new ServletException("@WebSocket endpoints declared but the container does not support Jakarta WebSocket");
+        }
+
+        int queueSize = (int) Utils.getInitParameter(config, "websocket_queue_size", 64L);
+        Set<String> allowedOrigins = new HashSet<>();
+        String origins = config.getInitParameter("websocket_allowed_origins");
+        if (origins != null) {
+            for (String origin : origins.split(",")) {
+                origin = origin.trim();
+                if (origin.isEmpty()) continue;
+                String normalized = "*".equals(origin) ? origin : normalizeOrigin(origin);
+                if (normalized == null) throw new ServletException("Invalid websocket_allowed_origins entry: " + origin);
+                allowedOrigins.add(normalized);
+            }
+        }
+        for (Map.Entry<String, Method> endpoint : endpoints.entrySet()) {
+            String path = endpoint.getKey();
+            Handshake handshake = new Handshake(owners.get(path), endpoint.getValue(), path, broadcaster,
+                                                sessionManager, queueSize, context, allowedOrigins);
+            try {
+                ((ServerContainer) container).addEndpoint(
+                    ServerEndpointConfig.Builder.create(ControllerEndpoint.class, path).configurator(handshake).build());
+            } catch (DeploymentException e) {
+                throw new ServletException("Unable to register @WebSocket endpoint " + path, e);
+            }
+        }
+    }
+
+    private static void checkParameters(Class<?> controller, Method method) throws ServletException {
+        for (Class<?> type : method.getParameterTypes()) {
+            if (type != String.class && type != WebSocketConnection.class && type != MySession.class
+                    && type != Broadcaster.class) {
+                throw new ServletException("Unsupported @WebSocket parameter type " + type.getName()
+                    + " on " + controller.getName() + "." + method.getName());
+            }
+        }
+    }
+
+    // "https://Exemple.com:443" -> "https://exemple.com" ; null si l'origine n'est pas une URL http(s) / ws(s)
+    private static String normalizeOrigin(String origin) {
+        try {
+            URI uri = new URI(origin);
+            String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase(Locale.ROOT);
+            if (uri.getHost() == null || scheme == null) return null;
+            boolean secure = "https".equals(scheme) || "wss".equals(scheme);
+            int port = uri.getPort() == (secure ? 443 : 80) ? -1 : uri.getPort();
+            return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + (port == -1 ? "" : ":" + port);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // Même origine : hôte et port de l'Origin identiques à l'en-tête Host (port par défaut du schéma de l'Origin)
+    private static boolean isSameOrigin(String origin, String host) {
+        String normalized = normalizeOrigin(origin);
+        if (normalized == null || host == null || host.trim().isEmpty()) return false;
+        String scheme = normalized.substring(0, normalized.indexOf("://"));
+        return normalized.equals(normalizeOrigin(scheme + "://" + host.trim()));
+    }
+
+    // Poignée de main : origine, session et @Authentication vérifiées comme pour une requête HTTP, avant l'ouverture.
+    // Le navigateur envoie les cookies de session vers n'importe quelle origine : sans ce contrôle, une page tierce
+    // pourrait ouvrir une connexion authentifiée au nom de l'utilisateur
+    private static class Handshake extends ServerEndpointConfig.Configurator {
+        private final Class<?> controllerClass;
+        private final Method method;
+        private final String path;
+        private final Broadcaster broadcaster;
+        private final SessionManager sessionManager;
+        private final int queueSize;
+        private final ServletContext context;
+        private final Set<String> allowedOrigins;
+
+        Handshake(Class<?> controllerClass, Method method, String path, Broadcaster broadcaster,
+                  SessionManager sessionManager, int queueSize, ServletContext context, Set<String> allowedOrigins) {
+            this.controllerClass = controllerClass;
+            this.method = method;
+            this.path = path;
+            this.broadcaster = broadcaster;
+            this.sessionManager = sessionManager;
+            this.queueSize = queueSize;
+            this.context = context;
+            this.allowedOrigins = allowedOrigins;
+        }
+
+        // Liste configurée : refus (403) par le conteneur avant la poignée de main.
+        // Sans liste, l'en-tête Host n'est visible que dans modifyHandshake, qui fait le contrôle de même origine.
+        // Pas d'Origin : client hors navigateur, qui n'envoie pas de cookies à l'insu de l'utilisateur
+        @Override
+        public boolean checkOrigin(String originHeaderValue) {
+            if (originHeaderValue == null || allowedOrigins.isEmpty()) return true;
+            return allowedOrigins.contains("*") || allowedOrigins.contains(normalizeOrigin(originHeaderValue));
+        }
+
+        @Override
+        public void modifyHandshake(ServerEndpointConfig config, HandshakeRequest handshake, HandshakeResponse response) {
+            HttpServletRequest request = HandshakeRequests.toServletRequest(handshake, context);
+            Map<String, Object> properties = config.getUserProperties();
+            String origin = request.getHeader("Origin");
+            if (origin != null && allowedOrigins.isEmpty() && !isSameOrigin(origin, request.getHeader("Host"))) {
+                properties.put(ControllerEndpoint.REFUSAL_PROPERTY, "Origin not allowed");
+                return;
+            }
+            if (sessionManager != null) {
+                SessionContext sessionContext = sessionManager.begin(request, HandshakeRequests.toServletResponse(response));
+                properties.put(ControllerEndpoint.SESSION_PROPERTY, sessionContext);
+            }
+            try {
+                AuthenticationInterceptor.validateAuthentication(method, controllerClass, request);
+                properties.put(ControllerEndpoint.REQUEST_PROPERTY, request);
+            } catch (AuthenticationException e) {
+                properties.put(ControllerEndpoint.REFUSAL_PROPERTY, e.getMessage());
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getEndpointInstance(Class<T> endpointClass) {
+            return (T) new ControllerEndpoint(controllerClass, method, path, broadcaster, sessionManager, queueSize);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package other;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import annotation.Controller;
+import annotation.methods.Url;
+import interceptor.InterceptorRegistry;
+
+// Test de charge du registre des routes, à lancer comme Main : java other.RouteRegistryStress [secondes] [lecteurs]
+// Hors de src (non copié par script.bat, donc absent du jar) : compilé avec les sources du framework,
+// javac -d bin -cp "lib\*" src\...\*.java test\other\*.java
+// Des écrivains rechargent, enregistrent et retirent des routes pendant que des lecteurs vérifient chaque instantané :
+// - /pair/a et /pair/b viennent toujours de la même version du Controller rechargé (jamais une table à moitié remplacée)
+// - une URL dynamique n'apparaît qu'avec au moins un verbe, chaque verbe a son Handler sur la bonne URL
+// - le parcours d'un instantané donne toujours sa taille annoncée
+// Code de sortie 1 au premier écart constaté
+public class RouteRegistryStress {
+    private static final int MAX_REPORTED = 10;
+
+    @Controller("pairV1")
+    public static class PairV1 {
+        @Url("/pair/a")
+        public String a() { return "v1"; }
+
+        @Url("/pair/b")
+        public String b() { return "v1"; }
+    }
+
+    @Controller("pairV2")
+    public static class PairV2 {
+        @Url("/pair/a")
+        public String a() { return "v2"; }
+
+        @Url("/pair/b")
+        public String b() { return "v2"; }
+    }
+
+    public static class Dynamic {
+        public String get() { return "get"; }
+
+        public String post() { return "post"; }
+    }
+
+    private static final AtomicBoolean running = new AtomicBoolean(true);
+    private static final AtomicLong failures = new AtomicLong();
+    private static final AtomicLong reads = new AtomicLong();
+    private static final AtomicLong writes = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 5L;
+        int readerCount = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        // Les traces du registre (une ligne par Controller à chaque rechargement) noieraient le résultat
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        RouteRegistry registry = new RouteRegistry(new InterceptorRegistry(), 0L);
+        registry.registerControllers(List.of(PairV1.class));
+
+        Method get = Dynamic.class.getMethod("get");
+        Method post = Dynamic.class.getMethod("post");
+        Set<String> pairClasses = Set.of(PairV1.class.getName(), PairV2.class.getName());
+
+        List<Thread> threads = new ArrayList<>();
+
+        // Rechargement à chaud : les deux URL changent de classe d'un seul coup
+        threads.add(new Thread(() -> {
+            boolean second = true;
+            while (running.get()) {
+                try {
+                    registry.replaceControllers(pairClasses, List.of(second ? PairV2.class : PairV1.class));
+                    second = !second;
+                    writes.incrementAndGet();
+                } catch (Exception e) {
+                    fail("replaceControllers failed: " + e);
+                }
+            }
+        }, "stress-reload"));
+
+        // Routes isolées : GET, GET+POST, POST, puis retrait complet, sur des URL propres à chaque écrivain
+        for (int w = 0; w < 2; w++) {
+            String prefix = "/dyn/" + w + "/";
+            threads.add(new Thread(() -> {
+                for (int i = 0; running.get(); i++) {
+                    String url = prefix + (i % 16);
+                    try {
+                        registry.register(url, "GET", Dynamic.class, get);
+                        registry.register(url, "POST", Dynamic.class, post);
+                        if (!registry.unregister(url, "get")) fail("unregister(" + url + ", get) found nothing");
+                        if (!registry.unregister(url)) fail("unregister(" + url + ") found nothing");
+                        writes.addAndGet(4);
+                    } catch (Exception e) {
+                        fail("register/unregister failed on " + url + ": " + e);
+                    }
+                }
+            }, "stress-dynamic-" + w));
+        }
+
+        for (int r = 0; r < readerCount; r++) {
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    check(registry.snapshot());
+                    reads.incrementAndGet();
+                }
+            }, "stress-reader-" + r));
+        }
+
+        for (Thread thread : threads) thread.start();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread thread : threads) thread.join();
+        System.setOut(console);
+
+        System.out.println("Snapshots checked: " + reads.get() + ", writes: " + writes.get() + ", failures: " + failures.get());
+        if (failures.get() > 0) System.exit(1);
+    }
+
+    private static void check(RouteTable table) {
+        Mapping a = table.get("/pair/a");
+        Mapping b = table.get("/pair/b");
+        if (a == null || b == null) {
+            fail("reloaded routes missing: /pair/a=" + a + " /pair/b=" + b);
+        } else {
+            Class<?> classA = a.getHandler(HttpVerb.GET).getControllerClass();
+            Class<?> classB = b.getHandler(HttpVerb.GET).getControllerClass();
+            if (classA != classB) fail("half-replaced table: /pair/a -> " + classA.getSimpleName() + ", /pair/b -> " + classB.getSimpleName());
+        }
+
+        int iterated = 0;
+        for (Map.Entry<String, Mapping> entry : table.entrySet()) {
+            iterated++;
+            Set<VerbAction> verbActions = entry.getValue().getVerbMethodes();
+            if (verbActions.isEmpty()) fail("route without verb: " + entry.getKey());
+            for (VerbAction verbAction : verbActions) {
+                Handler handler = verbAction.getHandler();
+                if (handler == null) fail("verb without handler: " + verbAction.getVerbe() + " " + entry.getKey());
+                else if (!entry.getKey().equals(handler.getUrl())) fail("handler of " + handler.getUrl() + " under " + entry.getKey());
+            }
+        }
+        if (iterated != table.size()) fail("snapshot size " + table.size() + " but " + iterated + " entries iterated");
+    }
+
+    private static void fail(String message) {
+        if (failures.incrementAndGet() <= MAX_REPORTED) System.err.println("FAIL " + message);
+    }
+}